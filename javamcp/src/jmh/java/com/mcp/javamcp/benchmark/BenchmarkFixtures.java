@@ -0,0 +1,151 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.configuration.AuthServerConfig;
+import com.mcp.javamcp.controller.CustomAuthController;
+import com.mcp.javamcp.model.User;
+import com.mcp.javamcp.repository.UserRepository;
+import com.mcp.javamcp.security.BoundedAuthenticationExecutor;
+import com.mcp.javamcp.security.JwtKeyManager;
+import com.mcp.javamcp.security.JwtSigningKey;
+import com.mcp.javamcp.security.PasswordHashing;
+import com.mcp.javamcp.service.CustomUserDetailsService;
+import com.mcp.javamcp.service.LoginFailureTracker;
+import com.mcp.javamcp.service.RefreshTokenService;
+import com.mcp.javamcp.service.TokenRevocationService;
+import com.mcp.javamcp.service.TokenService;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Arma los mismos beans que AuthServerConfig pero sin contexto Spring ni base de datos,
+ * para que los benchmarks midan solo el hot path.
+ */
+final class BenchmarkFixtures {
+
+    static final String USERNAME = "bench-user";
+    static final String PASSWORD = "bench-password";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Mismo encoder que el bean, con strength fija para que los resultados sean comparables
+     */
+    static PasswordEncoder passwordEncoder(AuthServerConfig config) {
+        return config.passwordEncoder(new SimpleMeterRegistry(), PasswordHashing.BCRYPT, Duration.ofMillis(100),
+                PasswordHashing.MIN_BCRYPT_STRENGTH, PasswordHashing.MIN_ARGON2_ITERATIONS,
+                PasswordHashing.DEFAULT_PBKDF2_ITERATIONS);
+    }
+
+    static RSAKey rsaKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        return new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .keyID(UUID.randomUUID().toString())
+                .build();
+    }
+
+    static JwtEncoder jwtEncoder(RSAKey rsaKey) {
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+    }
+
+    /**
+     * Clave nueva del algoritmo pedido (RS256, ES256 o EdDSA), como las que carga AuthServerConfig
+     */
+    static JwtSigningKey signingKey(String algorithm) throws Exception {
+        String keyId = UUID.randomUUID().toString();
+        JWK jwk = switch (algorithm) {
+            case JwtSigningKey.RS256 -> new RSAKeyGenerator(2048).keyID(keyId).generate();
+            case JwtSigningKey.ES256 -> new ECKeyGenerator(Curve.P_256).keyID(keyId).generate();
+            case JwtSigningKey.EDDSA -> new OctetKeyPairGenerator(Curve.Ed25519).keyID(keyId).generate();
+            default -> throw new IllegalArgumentException("Algoritmo no soportado: " + algorithm);
+        };
+        return JwtSigningKey.of(jwk);
+    }
+
+    static TokenService tokenService(JwtSigningKey signingKey) {
+        return new TokenService(new JwtKeyManager(signingKey, 0), new SimpleMeterRegistry(), "http://localhost:8080");
+    }
+
+    static JwtDecoder jwtDecoder(RSAKey rsaKey) throws Exception {
+        return NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+    }
+
+    static UserRepository userRepository(PasswordEncoder passwordEncoder) {
+        UserRepository repository = InMemoryUserRepository.create();
+
+        User user = new User();
+        user.setUsername(USERNAME);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setRoles("ADMIN,USER");
+        repository.save(user);
+
+        return repository;
+    }
+
+    static CustomUserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
+        return new CustomUserDetailsService(userRepository(passwordEncoder), new SimpleMeterRegistry(),
+                10_000, Duration.ofSeconds(30));
+    }
+
+    static AuthenticationManager authenticationManager(AuthServerConfig config, PasswordEncoder passwordEncoder,
+                                                       CustomUserDetailsService userDetailsService) {
+        return config.authenticationManager(userDetailsService, passwordEncoder, new SimpleMeterRegistry());
+    }
+
+    static RefreshTokenService refreshTokenService() {
+        return new RefreshTokenService(InMemoryRefreshTokenRepository.create(), new SimpleMeterRegistry(),
+                Duration.ofDays(14), 1000);
+    }
+
+    static TokenRevocationService tokenRevocationService() {
+        return new TokenRevocationService(InMemoryRevokedTokenRepository.create(), new SimpleMeterRegistry(),
+                100_000, 0.001, Duration.ofSeconds(5), 1000);
+    }
+
+    /**
+     * Sin BD: solo cuenta en memoria (load/flush no se llaman fuera de Spring)
+     */
+    static LoginFailureTracker loginFailureTracker() {
+        return new LoginFailureTracker(null, new SimpleMeterRegistry(), 5, Duration.ofMinutes(15),
+                Duration.ofSeconds(5), Duration.ofMinutes(15), 100_000);
+    }
+
+    static CustomAuthController customAuthController(AuthenticationManager authenticationManager,
+                                                     CustomUserDetailsService userDetailsService,
+                                                     TokenService tokenService) {
+        CustomAuthController controller = new CustomAuthController();
+        ReflectionTestUtils.setField(controller, "authenticationManager", authenticationManager);
+        ReflectionTestUtils.setField(controller, "authenticationExecutor", new BoundedAuthenticationExecutor(
+                new SimpleMeterRegistry(), 0, 64, Duration.ofSeconds(5), Duration.ofSeconds(2)));
+        ReflectionTestUtils.setField(controller, "tokenService", tokenService);
+        ReflectionTestUtils.setField(controller, "loginFailureTracker", loginFailureTracker());
+        ReflectionTestUtils.setField(controller, "refreshTokenService", refreshTokenService());
+        ReflectionTestUtils.setField(controller, "userDetailsService", userDetailsService);
+        return controller;
+    }
+}
@@ -0,0 +1,114 @@
+package com.mcp.javamcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ejecuta los benchmarks con el GC profiler, guarda el resultado en JSON y lo compara
+ * contra benchmarks/baseline.json (versionado; si falta, termina con error).
+ *
+ * Uso: mvn -Pbenchmark test-compile exec:exec [-Djmh.include=regex]
+ * Propiedades:
+ *   -Djmh.baseline.update=true       reemplaza el baseline con este resultado
+ *   -Djmh.regression.threshold=0.10  tolerancia antes de marcar regresión
+ */
+public class BenchmarkRunner {
+
+    private static final Path RESULT = Path.of("target", "jmh-result.json");
+    private static final Path BASELINE = Path.of("benchmarks", "baseline.json");
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : "com.mcp.javamcp.benchmark.*";
+        double threshold = Double.parseDouble(System.getProperty("jmh.regression.threshold", "0.10"));
+        boolean updateBaseline = Boolean.getBoolean("jmh.baseline.update");
+
+        Files.createDirectories(RESULT.getParent());
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT.toString())
+                .build();
+
+        new Runner(options).run();
+
+        if (updateBaseline) {
+            Files.createDirectories(BASELINE.getParent());
+            Files.copy(RESULT, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline actualizado: " + BASELINE);
+            return;
+        }
+        if (Files.notExists(BASELINE)) {
+            // Sin baseline no hay contra qué comparar: no se toma este resultado como baseline a escondidas
+            System.err.println("No existe " + BASELINE + "; generarlo con -Djmh.baseline.update=true");
+            System.exit(1);
+        }
+
+        List<String> regressions = compare(RESULT, BASELINE, threshold);
+        if (!regressions.isEmpty()) {
+            System.err.println("Regresiones contra " + BASELINE + ":");
+            regressions.forEach(r -> System.err.println("  " + r));
+            System.exit(1);
+        }
+        System.out.println("Sin regresiones contra " + BASELINE);
+    }
+
+    static List<String> compare(Path current, Path baseline, double threshold) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baselineByKey = index(mapper.readTree(baseline.toFile()));
+        List<String> regressions = new ArrayList<>();
+
+        for (Map.Entry<String, JsonNode> entry : index(mapper.readTree(current.toFile())).entrySet()) {
+            JsonNode previous = baselineByKey.get(entry.getKey());
+            if (previous == null) {
+                continue;
+            }
+            JsonNode now = entry.getValue();
+
+            // Throughput: más alto es mejor; el resto de los modos mide tiempo
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double before = previous.path("primaryMetric").path("score").asDouble();
+            double after = now.path("primaryMetric").path("score").asDouble();
+            double change = higherIsBetter ? (before - after) / before : (after - before) / before;
+            if (change > threshold) {
+                regressions.add(String.format("%s: %.2f -> %.2f %s",
+                        entry.getKey(), before, after, now.path("primaryMetric").path("scoreUnit").asText()));
+            }
+
+            // Bytes asignados por operación: más alto siempre es peor
+            double allocBefore = previous.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble();
+            double allocAfter = now.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble();
+            if (allocBefore > 0 && (allocAfter - allocBefore) / allocBefore > threshold) {
+                regressions.add(String.format("%s: %.0f -> %.0f B/op", entry.getKey(), allocBefore, allocAfter));
+            }
+        }
+        return regressions;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new HashMap<>();
+        for (JsonNode result : results) {
+            String key = result.path("benchmark").asText();
+            if (result.has("params")) {
+                key += result.get("params").toString();
+            }
+            byKey.put(key, result);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.model.RefreshToken;
+import com.mcp.javamcp.repository.RefreshTokenRepository;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in en memoria de RefreshTokenRepository para los benchmarks de login/refresh.
+ * Mismo criterio que InMemoryUserRepository: lo que no usa el hot path lanza UnsupportedOperationException.
+ */
+final class InMemoryRefreshTokenRepository {
+
+    private InMemoryRefreshTokenRepository() {
+    }
+
+    static RefreshTokenRepository create() {
+        Map<ByteBuffer, RefreshToken> tokens = new ConcurrentHashMap<>();
+        Map<Long, RefreshToken> byId = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+
+        return (RefreshTokenRepository) Proxy.newProxyInstance(
+                RefreshTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RefreshTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByTokenHash" -> Optional.ofNullable(tokens.get(ByteBuffer.wrap((byte[]) args[0])));
+                    case "save" -> {
+                        RefreshToken token = (RefreshToken) args[0];
+                        if (token.getId() == null) {
+                            token.setId(ids.incrementAndGet());
+                        }
+                        tokens.put(ByteBuffer.wrap(token.getTokenHash()), token);
+                        byId.put(token.getId(), token);
+                        yield token;
+                    }
+                    case "markUsed" -> {
+                        // El token usado se saca del mapa para que el benchmark no crezca sin límite
+                        RefreshToken token = byId.remove((Long) args[0]);
+                        if (token == null || token.getUsedAt() != null) {
+                            yield 0;
+                        }
+                        token.setUsedAt((Instant) args[1]);
+                        tokens.remove(ByteBuffer.wrap(token.getTokenHash()));
+                        yield 1;
+                    }
+                    case "deleteByFamily" -> {
+                        UUID familyId = (UUID) args[0];
+                        int before = tokens.size();
+                        tokens.values().removeIf(t -> t.getFamilyId().equals(familyId));
+                        byId.values().removeIf(t -> t.getFamilyId().equals(familyId));
+                        yield before - tokens.size();
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryRefreshTokenRepository(" + tokens.size() + ")";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,50 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.model.RevokedToken;
+import com.mcp.javamcp.repository.RevokedTokenRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in en memoria de RevokedTokenRepository para medir el chequeo de revocación.
+ * Mismo criterio que InMemoryUserRepository: lo que no usa el hot path lanza UnsupportedOperationException.
+ */
+final class InMemoryRevokedTokenRepository {
+
+    private InMemoryRevokedTokenRepository() {
+    }
+
+    static RevokedTokenRepository create() {
+        Map<String, RevokedToken> entries = new ConcurrentHashMap<>();
+
+        return (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByTokenKey" -> Optional.ofNullable(entries.get((String) args[0]));
+                    case "save" -> {
+                        RevokedToken entry = (RevokedToken) args[0];
+                        entries.put(entry.getTokenKey(), entry);
+                        yield entry;
+                    }
+                    case "findKeysRevokedSince" -> {
+                        Instant since = (Instant) args[0];
+                        yield entries.values().stream()
+                                .filter(e -> !e.getRevokedAt().isBefore(since))
+                                .map(RevokedToken::getTokenKey)
+                                .toList();
+                    }
+                    case "findActiveKeys" -> List.copyOf(entries.keySet());
+                    case "deleteExpiredBatch" -> 0;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryRevokedTokenRepository(" + entries.size() + ")";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
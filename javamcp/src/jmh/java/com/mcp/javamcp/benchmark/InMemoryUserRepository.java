@@ -0,0 +1,54 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.model.User;
+import com.mcp.javamcp.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in en memoria de UserRepository para los benchmarks.
+ * Solo implementa los métodos que usa el camino de login; el resto lanza
+ * UnsupportedOperationException para que un cambio en el hot path no pase desapercibido.
+ */
+final class InMemoryUserRepository {
+
+    private InMemoryUserRepository() {
+    }
+
+    static UserRepository create() {
+        Map<String, User> users = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUsername" -> Optional.ofNullable(users.get((String) args[0]));
+                    case "save" -> {
+                        User user = (User) args[0];
+                        if (user.getId() == null) {
+                            user.setId(ids.incrementAndGet());
+                        }
+                        users.put(user.getUsername(), user);
+                        yield user;
+                    }
+                    case "updatePassword" -> {
+                        User user = users.get((String) args[0]);
+                        if (user == null) {
+                            yield 0;
+                        }
+                        user.setPassword((String) args[1]);
+                        yield 1;
+                    }
+                    case "count" -> (long) users.size();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserRepository" + users.keySet();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
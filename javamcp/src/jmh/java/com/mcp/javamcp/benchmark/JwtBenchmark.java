@@ -0,0 +1,97 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.security.CachingJwtDecoder;
+import com.mcp.javamcp.security.RevocationCheckingJwtDecoder;
+import com.mcp.javamcp.service.TokenRevocationService;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión (NimbusJwtEncoder) y verificación (NimbusJwtDecoder) de tokens con los
+ * mismos claims que arman CustomAuthController y OAuth2SuccessController.
+ * decodeCachedRevocationChecked suma el chequeo de revocación con REVOKED_TOKENS jti revocados
+ * (el token medido no lo está: es el caso común, resuelto por el Bloom filter sin ir a la BD).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final List<String> ROLES = List.of("ROLE_ADMIN", "ROLE_USER");
+    private static final int REVOKED_TOKENS = 50_000;
+
+    private JwtEncoder jwtEncoder;
+    private JwtDecoder jwtDecoder;
+    private JwtDecoder cachingJwtDecoder;
+    private JwtDecoder revocationCheckingJwtDecoder;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        RSAKey rsaKey = BenchmarkFixtures.rsaKey();
+        jwtEncoder = BenchmarkFixtures.jwtEncoder(rsaKey);
+        jwtDecoder = BenchmarkFixtures.jwtDecoder(rsaKey);
+        cachingJwtDecoder = new CachingJwtDecoder(jwtDecoder, 10_000, Duration.ofHours(1));
+        token = encodeLoginToken();
+
+        TokenRevocationService revocationService = BenchmarkFixtures.tokenRevocationService();
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        for (int i = 0; i < REVOKED_TOKENS; i++) {
+            revocationService.revokeToken("revoked-" + i, expiresAt);
+        }
+        revocationCheckingJwtDecoder = new RevocationCheckingJwtDecoder(cachingJwtDecoder, revocationService);
+    }
+
+    @Benchmark
+    public String encodeLoginToken() {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:8080")
+                .subject(BenchmarkFixtures.USERNAME)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .claim("roles", ROLES)
+                .build();
+
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    @Benchmark
+    public String encodeOAuth2Token() {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:8080")
+                .subject("Bench User")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .claim("provider", "google")
+                .claim("roles", List.of("OAUTH2_USER", "SCOPE_email", "SCOPE_profile"))
+                .claim("email", "bench.user@example.com")
+                .build();
+
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cachingJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCachedRevocationChecked() {
+        return revocationCheckingJwtDecoder.decode(token);
+    }
+}
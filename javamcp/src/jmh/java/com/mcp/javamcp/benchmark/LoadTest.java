@@ -0,0 +1,187 @@
+package com.mcp.javamcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test HTTP contra una instancia levantada, para comparar platform threads
+ * contra virtual threads (--spring.profiles.active=virtual-threads).
+ *
+ * Hace login una vez y después "load.concurrency" clientes repiten GET load.path
+ * (por defecto /api/users/profile, que consulta la BD) durante load.duration segundos.
+ * Reporta p50/p99/max, requests/s, el máximo de requests en vuelo del lado cliente y,
+ * si actuator responde (pide rol ADMIN: -Dload.username=admin -Dload.password=admin), el máximo
+ * de http.server.requests.active del lado servidor.
+ * El resultado queda en target/load-{label}.json.
+ */
+public class LoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.url", "http://localhost:8080");
+        String path = System.getProperty("load.path", "/api/users/profile");
+        int concurrency = Integer.getInteger("load.concurrency", 200);
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30L));
+        String label = System.getProperty("load.label", "run");
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        String token = login(client, baseUrl,
+                System.getProperty("load.username", "gonza"),
+                System.getProperty("load.password", "123"));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        AtomicInteger maxServerActive = new AtomicInteger(-1);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<long[]>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> sampleServerActive(client, baseUrl, token, deadline, maxServerActive));
+
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        long[] all = workers.stream()
+                .map(LoadTest::join)
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .toArray();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", label);
+        result.put("path", path);
+        result.put("concurrency", concurrency);
+        result.put("requests", all.length);
+        result.put("errors", errors.get());
+        result.put("requestsPerSecond", all.length / (double) duration.toSeconds());
+        result.put("p50Millis", percentile(all, 0.50));
+        result.put("p99Millis", percentile(all, 0.99));
+        result.put("maxMillis", all.length == 0 ? 0 : all[all.length - 1] / 1_000_000.0);
+        result.put("maxInFlightClient", maxInFlight.get());
+        result.put("maxInFlightServer", maxServerActive.get());
+
+        String json = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(result);
+        Path output = Path.of("target", "load-" + label + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+
+        System.out.println(json);
+        System.out.println("Resultado guardado en " + output);
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login falló (" + response.statusCode() + "): " + response.body());
+        }
+        return MAPPER.readTree(response.body()).get("token").asText();
+    }
+
+    /**
+     * Requests activas según el servidor (LongTaskTimer de Spring MVC), muestreadas cada 100ms
+     */
+    private static Void sampleServerActive(HttpClient client, String baseUrl, String token,
+                                           long deadline, AtomicInteger maxServerActive) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/http.server.requests.active"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    return null;
+                }
+                for (JsonNode measurement : MAPPER.readTree(response.body()).path("measurements")) {
+                    if ("ACTIVE_TASKS".equals(measurement.path("statistic").asText())) {
+                        maxServerActive.accumulateAndGet(measurement.path("value").asInt(), Math::max);
+                    }
+                }
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.mcp.javamcp.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.mcp.javamcp.utils.LogFields;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de loguear un login bajo concurrencia: los System.out.println que hacía el
+ * camino de login (antes) contra un evento SLF4J estructurado en un AsyncAppender (ahora).
+ * Ambos escriben al null device para medir el despacho y no la terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String USERNAME = BenchmarkFixtures.USERNAME;
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOa3wZ8mC7y0M0zdWcXs8nLjvJvH7e6yK";
+
+    @Param({"true", "false"})
+    public boolean neverBlock;
+
+    private PrintStream stdout;
+    private LoggerContext loggerContext;
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        File nullDevice = new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+        stdout = new PrintStream(new FileOutputStream(nullDevice), true);
+
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %level %logger %kvp %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(loggerContext);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(new FileOutputStream(nullDevice));
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(neverBlock);
+        async.addAppender(sink);
+        async.start();
+
+        logger = loggerContext.getLogger("login");
+        logger.setAdditive(false);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.addAppender(async);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loggerContext.stop();
+        stdout.close();
+    }
+
+    /**
+     * Lo que imprimían CustomAuthController + CustomUserDetailsService por login
+     */
+    @Benchmark
+    public void systemOut() {
+        stdout.println("🔐 Intento de login para: " + USERNAME);
+        stdout.println("=== BUSCANDO USUARIO EN BD: " + USERNAME + " ===");
+        stdout.println("Usuario encontrado: " + USERNAME);
+        stdout.println("Contraseña en BD: " + HASH);
+        stdout.println("Roles: " + "ADMIN,USER");
+        stdout.println("Autenticación exitosa para: " + USERNAME);
+        stdout.println("🔑 Token JWT generado");
+    }
+
+    /**
+     * Lo que loguea ahora el login: debug protegido por nivel y un único evento INFO estructurado
+     */
+    @Benchmark
+    public void slf4jAsync() {
+        long start = System.nanoTime();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Buscando usuario en BD {}", LogFields.usernameHash(USERNAME));
+        }
+        logger.atInfo()
+                .setMessage("Login {}")
+                .addArgument("success")
+                .addKeyValue(LogFields.USERNAME_HASH, LogFields.usernameHash(USERNAME))
+                .addKeyValue(LogFields.PROVIDER, "local")
+                .addKeyValue(LogFields.OUTCOME, "success")
+                .addKeyValue(LogFields.LATENCY_MS, LogFields.millisSince(start))
+                .log();
+    }
+}
@@ -0,0 +1,72 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.configuration.AuthServerConfig;
+import com.mcp.javamcp.controller.CustomAuthController;
+import com.mcp.javamcp.dto.LoginRequestDTO;
+import com.mcp.javamcp.dto.LoginResponseDTO;
+import com.mcp.javamcp.dto.RefreshRequestDTO;
+import com.mcp.javamcp.security.JwtSigningKey;
+import com.mcp.javamcp.service.CustomUserDetailsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login completo (CustomAuthController.login), solo la verificación
+ * DaoAuthenticationProvider + PasswordEncoder del AuthenticationManager, y la
+ * renovación con refresh token (CustomAuthController.refresh, sin BCrypt).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private AuthenticationManager authenticationManager;
+    private CustomAuthController controller;
+    private LoginRequestDTO request;
+    private String refreshToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        AuthServerConfig config = new AuthServerConfig();
+        PasswordEncoder passwordEncoder = BenchmarkFixtures.passwordEncoder(config);
+        CustomUserDetailsService userDetailsService = BenchmarkFixtures.userDetailsService(passwordEncoder);
+
+        authenticationManager = BenchmarkFixtures.authenticationManager(config, passwordEncoder, userDetailsService);
+        controller = BenchmarkFixtures.customAuthController(
+                authenticationManager,
+                userDetailsService,
+                BenchmarkFixtures.tokenService(BenchmarkFixtures.signingKey(JwtSigningKey.RS256)));
+        request = new LoginRequestDTO(BenchmarkFixtures.USERNAME, BenchmarkFixtures.PASSWORD);
+        refreshToken = ((LoginResponseDTO) controller.login(request).getBody()).refreshToken();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> login() {
+        return controller.login(request);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.username(), request.password()));
+    }
+
+    /**
+     * Cada refresh rota el token: se encadena con el que devuelve la llamada anterior
+     */
+    @Benchmark
+    public ResponseEntity<?> refresh() {
+        ResponseEntity<?> response = controller.refresh(new RefreshRequestDTO(refreshToken));
+        refreshToken = ((LoginResponseDTO) response.getBody()).refreshToken();
+        return response;
+    }
+}
@@ -0,0 +1,50 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.security.PasswordHashing;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificaciones de password por segundo en un solo thread, es decir logins/s por core,
+ * para cada algoritmo y costo configurable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"bcrypt:8", "bcrypt:10", "bcrypt:12", "argon2:2", "argon2:4", "pbkdf2:310000", "pbkdf2:600000"})
+    public String setting;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = setting.split(":");
+        int cost = Integer.parseInt(parts[1]);
+
+        PasswordEncoder active = switch (parts[0]) {
+            case PasswordHashing.BCRYPT -> PasswordHashing.bcrypt(cost);
+            case PasswordHashing.ARGON2 -> PasswordHashing.argon2(cost);
+            case PasswordHashing.PBKDF2 -> PasswordHashing.pbkdf2(cost);
+            default -> throw new IllegalArgumentException(setting);
+        };
+        encoder = PasswordHashing.delegating(parts[0],
+                parts[0].equals(PasswordHashing.BCRYPT) ? active : PasswordHashing.bcrypt(PasswordHashing.MIN_BCRYPT_STRENGTH),
+                parts[0].equals(PasswordHashing.ARGON2) ? active : PasswordHashing.argon2(PasswordHashing.MIN_ARGON2_ITERATIONS),
+                parts[0].equals(PasswordHashing.PBKDF2) ? active : PasswordHashing.pbkdf2(PasswordHashing.DEFAULT_PBKDF2_ITERATIONS));
+        hash = encoder.encode(BenchmarkFixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(BenchmarkFixtures.PASSWORD, hash);
+    }
+}
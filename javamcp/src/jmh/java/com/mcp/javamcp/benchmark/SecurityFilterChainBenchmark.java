@@ -0,0 +1,196 @@
+package com.mcp.javamcp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.javamcp.configuration.AuthServerConfig;
+import com.mcp.javamcp.model.Role;
+import com.mcp.javamcp.security.JwtKeyManager;
+import com.mcp.javamcp.security.JwtSigningKey;
+import com.mcp.javamcp.security.LocalRateLimitStore;
+import com.mcp.javamcp.security.LoginRateLimitFilter;
+import com.mcp.javamcp.security.RoleAuthorities;
+import com.mcp.javamcp.security.RolesClaimAuthenticationConverter;
+import com.mcp.javamcp.security.SigningKeyJwtDecoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.oauth2.client.CommonOAuth2Provider;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.AbstractSecurityWebApplicationInitializer;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de los filtros de Spring Security por request (sin DispatcherServlet ni controller).
+ * chains=single es la cadena única de antes (form login + OAuth2 login + resource server);
+ * chains=split son las cadenas de AuthServerConfig (API stateless + navegador).
+ * El JwtDecoder no cachea: los dos casos pagan la misma verificación de firma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+    @Param({"single", "split"})
+    public String chains;
+
+    private AnnotationConfigServletWebApplicationContext context;
+    private Filter springSecurityFilterChain;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JwtSigningKey signingKey = BenchmarkFixtures.signingKey(JwtSigningKey.RS256);
+        token = BenchmarkFixtures.tokenService(signingKey)
+                .issue(BenchmarkFixtures.USERNAME, RoleAuthorities.of(Role.ALL)).tokenValue();
+
+        context = new AnnotationConfigServletWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.registerBean(JwtDecoder.class, () -> new SigningKeyJwtDecoder(new JwtKeyManager(signingKey, 0)));
+        context.register("single".equals(chains) ? SingleChainConfig.class : SplitChainConfig.class);
+        context.refresh();
+        springSecurityFilterChain = context.getBean(
+                AbstractSecurityWebApplicationInitializer.DEFAULT_FILTER_NAME, Filter.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * GET autenticado con Bearer token (el caso común de la API)
+     */
+    @Benchmark
+    public MockHttpServletResponse bearerRequest() throws Exception {
+        MockHttpServletRequest request = request("/api/user/info");
+        request.addHeader("Authorization", "Bearer " + token);
+        return filter(request);
+    }
+
+    /**
+     * GET sin token a un endpoint protegido: 401 (la cadena única además guardaba el request en sesión)
+     */
+    @Benchmark
+    public MockHttpServletResponse unauthorizedRequest() throws Exception {
+        return filter(request("/api/user/info"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicRequest() throws Exception {
+        return filter(request("/api/public/data"));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private static ClientRegistrationRepository clientRegistrations() {
+        return new InMemoryClientRegistrationRepository(CommonOAuth2Provider.GOOGLE.getBuilder("google")
+                .clientId("bench-client")
+                .clientSecret("bench-secret")
+                .build());
+    }
+
+    private static LoginRateLimitFilter rateLimitFilter() {
+        return new LoginRateLimitFilter(new LocalRateLimitStore(100_000), new ObjectMapper(), new SimpleMeterRegistry(),
+                true, 30, Duration.ofMinutes(1), 10, Duration.ofMinutes(5));
+    }
+
+    /**
+     * La cadena única anterior a la separación, tal cual
+     */
+    @Configuration
+    @EnableWebSecurity
+    @EnableWebMvc
+    static class SingleChainConfig {
+
+        @Bean
+        ClientRegistrationRepository clientRegistrationRepository() {
+            return clientRegistrations();
+        }
+
+        @Bean
+        SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+            AuthServerConfig config = new AuthServerConfig();
+            http
+                    .cors(cors -> cors.configurationSource(config.corsConfigurationSource()))
+                    .addFilterBefore(rateLimitFilter(), UsernamePasswordAuthenticationFilter.class)
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers("/", "/error", "/webjars/**", "/css/**", "/js/**",
+                                    "/api/public/**", "/api/auth/**", "/api/users/register", "/api/users/check/**",
+                                    "/.well-known/jwks.json").permitAll()
+                            .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                            .anyRequest().authenticated()
+                    )
+                    .formLogin(form -> form
+                            .defaultSuccessUrl("/oauth2/success", true)
+                            .permitAll()
+                    )
+                    .oauth2Login(oauth2 -> oauth2
+                            .defaultSuccessUrl("/oauth2/success", true)
+                            .permitAll()
+                    )
+                    .oauth2ResourceServer(oauth2 -> oauth2
+                            .jwt(jwt -> jwt.jwtAuthenticationConverter(new RolesClaimAuthenticationConverter()))
+                    )
+                    .csrf(csrf -> csrf.disable());
+            return http.build();
+        }
+    }
+
+    /**
+     * Las cadenas de AuthServerConfig
+     */
+    @Configuration
+    @EnableWebSecurity
+    @EnableWebMvc
+    static class SplitChainConfig {
+
+        private final AuthServerConfig config = new AuthServerConfig();
+        private final LoginRateLimitFilter rateLimitFilter = rateLimitFilter();
+
+        @Bean
+        ClientRegistrationRepository clientRegistrationRepository() {
+            return clientRegistrations();
+        }
+
+        @Bean
+        @Order(1)
+        SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+            return config.apiSecurityFilterChain(http, rateLimitFilter);
+        }
+
+        @Bean
+        @Order(2)
+        SecurityFilterChain browserSecurityFilterChain(HttpSecurity http) throws Exception {
+            return config.browserSecurityFilterChain(http, rateLimitFilter);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.security.JwtKeyManager;
+import com.mcp.javamcp.security.JwtSigningKey;
+import com.mcp.javamcp.security.SigningKeyJwtDecoder;
+import com.mcp.javamcp.service.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Firma (TokenService.issue) y verificación (SigningKeyJwtDecoder, sin cache) por algoritmo,
+ * para elegir app.security.jwt.algorithm según la proporción emisión/verificación del tráfico.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    private static final List<GrantedAuthority> AUTHORITIES =
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER");
+
+    @Param({JwtSigningKey.RS256, JwtSigningKey.ES256, JwtSigningKey.EDDSA})
+    public String algorithm;
+
+    private TokenService tokenService;
+    private SigningKeyJwtDecoder jwtDecoder;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JwtSigningKey signingKey = BenchmarkFixtures.signingKey(algorithm);
+        tokenService = BenchmarkFixtures.tokenService(signingKey);
+        jwtDecoder = new SigningKeyJwtDecoder(new JwtKeyManager(signingKey, 0));
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenService.issue(BenchmarkFixtures.USERNAME, AUTHORITIES).tokenValue();
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return jwtDecoder.decode(token);
+    }
+}
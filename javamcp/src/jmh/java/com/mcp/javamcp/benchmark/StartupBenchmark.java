@@ -0,0 +1,120 @@
+package com.mcp.javamcp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de arranque medido como lo ve el autoscaler: desde que se lanza el proceso hasta
+ * el primer POST /api/auth/login que responde 200 (contexto, esquema, claves y BCrypt incluidos).
+ *
+ * Lanza startup.runs veces java {startup.jvmArgs} -jar {startup.jar}, sondea el login cada 20ms
+ * y mata el proceso. Para comparar modos se corre una vez por modo con distinto startup.label
+ * (jar normal, AOT + CDS, nativo). El usuario tiene que existir en la BD (perfil dev una vez).
+ * El resultado queda en target/startup-{label}.json; la salida de cada arranque en target/startup-{label}-{n}.log.
+ */
+public class StartupBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        String jar = System.getProperty("startup.jar", "target/javamcp-0.0.1-SNAPSHOT.jar");
+        String jvmArgs = System.getProperty("startup.jvmArgs", "").trim();
+        int runs = Integer.getInteger("startup.runs", 5);
+        String label = System.getProperty("startup.label", "run");
+        String baseUrl = System.getProperty("load.url", "http://localhost:8080");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(500))
+                .build();
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(Map.of(
+                        "username", System.getProperty("load.username", "gonza"),
+                        "password", System.getProperty("load.password", "123")))))
+                .build();
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.add("-jar");
+        command.add(jar);
+
+        Files.createDirectories(Path.of("target"));
+        long[] firstLogin = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            Path log = Path.of("target", "startup-" + label + "-" + run + ".log");
+            firstLogin[run] = timeToFirstLogin(client, login, command, log);
+            System.out.printf("Arranque %d: primer login a los %d ms%n", run, firstLogin[run]);
+        }
+
+        long[] sorted = firstLogin.clone();
+        Arrays.sort(sorted);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", label);
+        result.put("command", String.join(" ", command));
+        result.put("runs", runs);
+        result.put("firstLoginMillis", firstLogin);
+        result.put("minMillis", sorted[0]);
+        result.put("medianMillis", sorted[runs / 2]);
+        result.put("maxMillis", sorted[runs - 1]);
+
+        String json = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(result);
+        Path output = Path.of("target", "startup-" + label + ".json");
+        Files.writeString(output, json);
+
+        System.out.println(json);
+        System.out.println("Resultado guardado en " + output);
+    }
+
+    private static long timeToFirstLogin(HttpClient client, HttpRequest login, List<String> command, Path log)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("La app terminó con código " + process.exitValue() + ", ver " + log);
+                }
+                try {
+                    HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                    // Con el servidor ya escuchando, cualquier otro status es un error de la prueba, no del arranque
+                    throw new IllegalStateException("Login falló (" + response.statusCode() + "): " + response.body());
+                } catch (IOException e) {
+                    // Todavía no escucha
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("Sin login exitoso en " + TIMEOUT.toSeconds() + "s, ver " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.mcp.javamcp.benchmark;
+
+import com.mcp.javamcp.security.JwtSigningKey;
+import com.mcp.javamcp.service.TokenService;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Emisión de tokens: el camino anterior de los controllers (JwtClaimsSet + NimbusJwtEncoder)
+ * contra TokenService, con la misma clave y los mismos claims.
+ * Tokens/seg en el score; bytes por token en gc.alloc.rate.norm (GC profiler del runner).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenMintingBenchmark {
+
+    private static final List<GrantedAuthority> LOGIN_AUTHORITIES =
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER");
+    private static final List<GrantedAuthority> OAUTH2_AUTHORITIES =
+            AuthorityUtils.createAuthorityList("OAUTH2_USER", "SCOPE_email", "SCOPE_profile");
+
+    private JwtEncoder jwtEncoder;
+    private TokenService tokenService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        RSAKey rsaKey = BenchmarkFixtures.rsaKey();
+        jwtEncoder = BenchmarkFixtures.jwtEncoder(rsaKey);
+        tokenService = BenchmarkFixtures.tokenService(JwtSigningKey.of(rsaKey));
+    }
+
+    /**
+     * Lo que hacía CustomAuthController.login: claims desde cero y authorities recorridas dos veces
+     */
+    @Benchmark
+    public String loginNimbus() {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:8080")
+                .subject(BenchmarkFixtures.USERNAME)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .claim("roles", LOGIN_AUTHORITIES.stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()))
+                .build();
+
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        List<String> roles = LOGIN_AUTHORITIES.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        return roles.isEmpty() ? null : token;
+    }
+
+    @Benchmark
+    public String loginTokenService() {
+        return tokenService.issue(BenchmarkFixtures.USERNAME, LOGIN_AUTHORITIES).tokenValue();
+    }
+
+    @Benchmark
+    public String oauth2Nimbus() {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:8080")
+                .subject("Bench User")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .claim("provider", "google")
+                .claim("provider_id", "104857600000000000001")
+                .claim("roles", OAUTH2_AUTHORITIES.stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()))
+                .claim("email", "bench.user@example.com")
+                .build();
+
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    @Benchmark
+    public String oauth2TokenService() {
+        return tokenService.issue("Bench User", OAUTH2_AUTHORITIES, "google", "104857600000000000001",
+                        "bench.user@example.com")
+                .tokenValue();
+    }
+}
@@ -2,8 +2,10 @@ package com.mcp.javamcp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JavamcpApplication {
 
 	public static void main(String[] args) {
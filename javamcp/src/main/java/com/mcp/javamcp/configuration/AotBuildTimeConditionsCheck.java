@@ -0,0 +1,63 @@
+package com.mcp.javamcp.configuration;
+
+import com.mcp.javamcp.utils.DataLoader;
+import com.mcp.javamcp.utils.UserImportRunner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+/**
+ * Con el jar AOT (mvn -Pcds) los @Profile / @ConditionalOn... se evaluaron en el build: activar
+ * el perfil o la propiedad al arrancar no crea el bean. Sin este chequeo eso pasa en silencio.
+ *
+ * La importación por línea de comando falla (si no, la app arranca sin importar nada);
+ * el resto queda como warning.
+ */
+@Slf4j
+@Component
+public class AotBuildTimeConditionsCheck {
+
+    private final ApplicationContext context;
+    private final Environment environment;
+
+    public AotBuildTimeConditionsCheck(ApplicationContext context, Environment environment) {
+        this.context = context;
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+
+        if (environment.containsProperty("app.user-import.file") && missing(UserImportRunner.class)) {
+            throw new IllegalStateException("app.user-import.file no tiene efecto en el jar AOT: "
+                    + "correr la importación con el jar normal o sin -Dspring.aot.enabled=true");
+        }
+        if (environment.acceptsProfiles(Profiles.of("dev")) && missing(DataLoader.class)) {
+            warnIgnored("el perfil dev (usuarios de prueba)");
+        }
+        if (environment.getProperty("app.security.jwt.rotation.enabled", Boolean.class, false)
+                && missing(JwtKeyRotationScheduler.class)) {
+            warnIgnored("app.security.jwt.rotation.enabled");
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && missing(VirtualThreadPinningMonitor.class)) {
+            warnIgnored("spring.threads.virtual.enabled (perfil virtual-threads)");
+        }
+    }
+
+    private boolean missing(Class<?> beanType) {
+        return context.getBeanNamesForType(beanType).length == 0;
+    }
+
+    private static void warnIgnored(String setting) {
+        log.warn("{} no tiene efecto en el jar AOT (los beans condicionales se fijaron en el build)", setting);
+    }
+}
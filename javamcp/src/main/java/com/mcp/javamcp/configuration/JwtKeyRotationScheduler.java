@@ -0,0 +1,49 @@
+package com.mcp.javamcp.configuration;
+
+import com.mcp.javamcp.security.JwtKeyLoader;
+import com.mcp.javamcp.security.JwtKeyManager;
+import com.mcp.javamcp.security.JwtSigningKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rotación de la clave de firma sin reiniciar (app.security.jwt.rotation.enabled=true).
+ *
+ * Cada check-interval vuelve a leer el par PEM configurado; si el thumbprint cambió, la clave
+ * nueva pasa a firmar y la anterior queda solo para verificar. En un cluster se rota
+ * reemplazando el secreto montado en todos los nodos: como el kid es el thumbprint,
+ * todos convergen al mismo kid sin coordinarse.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.security.jwt.rotation", name = "enabled", havingValue = "true")
+public class JwtKeyRotationScheduler {
+
+    private final JwtKeyLoader keyLoader;
+    private final JwtKeyManager keyManager;
+
+    public JwtKeyRotationScheduler(JwtKeyLoader keyLoader, JwtKeyManager keyManager) {
+        this.keyLoader = keyLoader;
+        this.keyManager = keyManager;
+    }
+
+    @Scheduled(initialDelayString = "${app.security.jwt.rotation.check-interval:5m}",
+            fixedDelayString = "${app.security.jwt.rotation.check-interval:5m}")
+    public void reload() {
+        try {
+            JwtSigningKey candidate = JwtSigningKey.of(keyLoader.load());
+            if (keyManager.rotate(candidate)) {
+                log.atInfo()
+                        .setMessage("Clave de firma JWT rotada")
+                        .addKeyValue("kid", candidate.keyId())
+                        .addKeyValue("previous_kids", keyManager.previous().stream().map(JwtSigningKey::keyId).toList())
+                        .log();
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo recargar la clave de firma JWT, se sigue con kid {}: {}",
+                    keyManager.active().keyId(), e.getMessage());
+        }
+    }
+}
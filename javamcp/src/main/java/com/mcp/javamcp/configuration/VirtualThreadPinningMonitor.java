@@ -0,0 +1,115 @@
+package com.mcp.javamcp.configuration;
+
+import com.mcp.javamcp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnóstico de pinning en modo virtual threads (spring.threads.virtual.enabled=true).
+ *
+ * Escucha el evento JFR jdk.VirtualThreadPinned y muestra el stack de cada lugar distinto
+ * donde un virtual thread quedó clavado a su carrier (synchronized + I/O bloqueante) más que
+ * el umbral. Los lugares se distinguen por el stack completo: el frame de arriba siempre es
+ * VirtualThread.parkOnCarrierThread.
+ *
+ * Al arrancar corre la consulta del login (Hibernate, Hikari y el driver) desde un virtual
+ * thread; sin carga casi nunca supera el umbral, así que la lista sale del tráfico real o
+ * del load test.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final int MAX_FRAMES = 12;
+
+    private final UserRepository userRepository;
+    private final Counter pinnedCounter;
+    private final Duration threshold;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.userRepository = userRepository;
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads clavados a su carrier más que el umbral")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws Exception {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::report);
+        stream.startAsync();
+
+        log.info("Virtual threads activos - monitoreando pinning > {}ms", threshold.toMillis());
+
+        Thread probe = Thread.ofVirtual().name("pinning-probe").start(this::probeLoginQuery);
+        probe.join();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void probeLoginQuery() {
+        try {
+            userRepository.findByUsername("pinning-probe");
+        } catch (Exception e) {
+            log.warn("No se pudo probar el camino JPA desde un virtual thread: {}", e.getMessage());
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCounter.increment();
+
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String stack = frames.stream().map(VirtualThreadPinningMonitor::describe).collect(Collectors.joining("\n"));
+        if (!reportedSites.add(stack)) {
+            return;
+        }
+
+        // Se saltea el park del propio VirtualThread para que el stack muestre quién tenía el monitor
+        List<RecordedFrame> callerFrames = frames.stream().dropWhile(VirtualThreadPinningMonitor::isParkFrame).toList();
+        String site = callerFrames.isEmpty() ? "desconocido" : describe(callerFrames.get(0));
+        StringBuilder message = new StringBuilder()
+                .append("Virtual thread pinned ").append(event.getDuration().toMillis()).append("ms en ").append(site);
+        callerFrames.stream().limit(MAX_FRAMES).forEach(frame -> message.append("\n    at ").append(describe(frame)));
+        log.warn(message.toString());
+    }
+
+    private static boolean isParkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.equals("java.lang.VirtualThread") || type.startsWith("jdk.internal.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -1,5 +1,6 @@
 package com.mcp.javamcp.controller;
 
+import com.mcp.javamcp.security.RoleAuthorities;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -27,8 +28,7 @@ public class ApiController {
     public ResponseEntity<?> getUserInfo(Authentication authentication) {
         return ResponseEntity.ok(Map.of(
                 "username", authentication.getName(),
-                "roles", authentication.getAuthorities().stream()
-                        .map(auth -> auth.getAuthority()).toList(),
+                "roles", RoleAuthorities.names(authentication.getAuthorities()),
                 "authenticated", true,
                 "message", "¡Hola desde el API protegido!",
                 "timestamp", new Date()
@@ -3,118 +3,285 @@ package com.mcp.javamcp.controller;
 import com.mcp.javamcp.dto.ErrorResponseDTO;
 import com.mcp.javamcp.dto.LoginRequestDTO;
 import com.mcp.javamcp.dto.LoginResponseDTO;
+import com.mcp.javamcp.dto.RefreshRequestDTO;
+import com.mcp.javamcp.dto.UserPageDTO;
 import com.mcp.javamcp.dto.UserProfileDTO;
 import com.mcp.javamcp.repository.OAuth2UserRepository;
+import com.mcp.javamcp.security.BoundedAuthenticationExecutor;
+import com.mcp.javamcp.security.InvalidRefreshTokenException;
+import com.mcp.javamcp.security.LoginCapacityExceededException;
+import com.mcp.javamcp.service.LoginFailureTracker;
+import com.mcp.javamcp.service.RefreshTokenService;
+import com.mcp.javamcp.service.TokenRevocationService;
+import com.mcp.javamcp.service.TokenService;
+import com.mcp.javamcp.service.UserExportService;
+import com.mcp.javamcp.utils.LogFields;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.oauth2.jwt.JwtClaimsSet;
-import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:3000")
 public class CustomAuthController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private JwtEncoder jwtEncoder;
+    private BoundedAuthenticationExecutor authenticationExecutor;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private LoginFailureTracker loginFailureTracker;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
 
     @Autowired
     private OAuth2UserRepository oauth2UserRepository;
 
+    @Autowired
+    private UserExportService userExportService;
+
+    @Value("${app.user-export.timeout:30m}")
+    private Duration exportTimeout;
+
     /**
      * Endpoint para login desde frontend con JSON
      * POST /api/auth/login
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO request) {
+        long start = System.nanoTime();
+        String usernameHash = LogFields.usernameHash(request.username());
+
+        // Bloqueado por fallos repetidos: ni se llega a verificar la contraseña
+        Duration lockout = loginFailureTracker.lockoutRemaining(request.username());
+        if (!lockout.isZero()) {
+            logOutcome("Login", "locked", usernameHash, start);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, lockout.toSeconds())))
+                    .body(ErrorResponseDTO.of("Usuario bloqueado", "Demasiados intentos fallidos, reintentá más tarde"));
+        }
+
         try {
-            System.out.println("🔐 Intento de login para: " + request.username());
+            log.debug("Intento de login {}", usernameHash);
 
-            // Autenticar con Spring Security
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.username(),
-                            request.password()
+            // Autenticar con Spring Security (en el pool acotado de verificación de passwords)
+            Authentication authentication = authenticationExecutor.authenticate(() ->
+                    authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    request.username(),
+                                    request.password()
+                            )
                     )
             );
 
-            System.out.println("Autenticación exitosa para: " + authentication.getName());
+            loginFailureTracker.recordSuccess(request.username());
 
             // Generar JWT
-            JwtClaimsSet claims = JwtClaimsSet.builder()
-                    .issuer("http://localhost:8080")
-                    .subject(authentication.getName())
-                    .issuedAt(Instant.now())
-                    .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
-                    .claim("roles", authentication.getAuthorities().stream()
-                            .map(auth -> auth.getAuthority())
-                            .collect(Collectors.toList()))
-                    .build();
-
-            String token = jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
-
-            System.out.println("🔑 Token JWT generado");
+            TokenService.IssuedToken token = tokenService.issue(
+                    authentication.getName(), authentication.getAuthorities());
 
             // Crear respuesta usando el DTO
             var response = LoginResponseDTO.success(
-                    token,
+                    token.tokenValue(),
                     authentication.getName(),
-                    authentication.getAuthorities().stream()
-                            .map(auth -> auth.getAuthority())
-                            .collect(Collectors.toList()),
-                    3600 // 1 hora en segundos
+                    token.roles(),
+                    token.expiresIn(),
+                    refreshTokenService.issue(authentication.getName())
             );
 
+            logOutcome("Login", "success", usernameHash, start);
             return ResponseEntity.ok(response);
 
         } catch (BadCredentialsException e) {
-            System.err.println("Credenciales inválidas para: " + request.username());
+            loginFailureTracker.recordFailure(request.username());
+            logOutcome("Login", "bad_credentials", usernameHash, start);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ErrorResponseDTO.of("Credenciales inválidas", "Usuario o contraseña incorrectos"));
 
         } catch (AuthenticationException e) {
-            System.err.println("Error de autenticación: " + e.getMessage());
+            logOutcome("Login", "auth_error", usernameHash, start);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ErrorResponseDTO.of("Error de autenticación", e.getMessage()));
+        } catch (LoginCapacityExceededException e) {
+            logOutcome("Login", "rejected_capacity", usernameHash, start);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(ErrorResponseDTO.of("Servicio saturado", "Demasiados logins en curso, reintentá en unos segundos"));
         }
     }
 
     /**
-     * Endpoint para ver todos los usuarios OAuth2 registrados
-     * GET /api/auth/users
+     * Endpoint para renovar el access token sin volver a verificar la contraseña
+     * POST /api/auth/refresh
+     * El refresh token recibido queda usado; la respuesta trae uno nuevo
      */
-    @GetMapping("/users")
-    public ResponseEntity<?> getOAuth2Users(Authentication authentication) {
-        // Solo admin puede ver la lista de usuarios
-        boolean isAdmin = authentication != null &&
-                authentication.getAuthorities().stream()
-                        .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-
-        if (!isAdmin) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(ErrorResponseDTO.of("Forbidden", "Solo administradores pueden ver usuarios"));
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequestDTO request) {
+        long start = System.nanoTime();
+        String username = null;
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.refreshToken());
+            username = rotation.username();
+
+            // Roles actuales del usuario (cache de CustomUserDetailsService, sin BCrypt)
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            TokenService.IssuedToken token = tokenService.issue(user.getUsername(), user.getAuthorities());
+
+            var response = LoginResponseDTO.success(
+                    token.tokenValue(),
+                    user.getUsername(),
+                    token.roles(),
+                    token.expiresIn(),
+                    rotation.refreshToken()
+            );
+
+            logOutcome("Refresh", "success", LogFields.usernameHash(username), start);
+            return ResponseEntity.ok(response);
+
+        } catch (InvalidRefreshTokenException e) {
+            logOutcome("Refresh", "invalid", null, start);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ErrorResponseDTO.of("Refresh token inválido", "Volvé a iniciar sesión"));
+
+        } catch (UsernameNotFoundException e) {
+            // La cuenta ya no existe: no dejar sesiones colgadas
+            refreshTokenService.revokeAll(username);
+            logOutcome("Refresh", "user_not_found", LogFields.usernameHash(username), start);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ErrorResponseDTO.of("Refresh token inválido", "Volvé a iniciar sesión"));
+        }
+    }
+
+    /**
+     * Cierra la sesión: revoca el access token del header y, si viene, la familia del refresh token
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(Authentication authentication,
+                                    @RequestBody(required = false) RefreshRequestDTO request) {
+        long start = System.nanoTime();
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ErrorResponseDTO.of("No autenticado", "Se requiere un Bearer token"));
         }
 
-        var users = oauth2UserRepository.findAll().stream()
-                .map(UserProfileDTO::from)
-                .collect(Collectors.toList());
+        Jwt jwt = jwtAuthentication.getToken();
+        tokenRevocationService.revokeToken(jwt.getId(), jwt.getExpiresAt());
+        if (request != null && request.refreshToken() != null) {
+            refreshTokenService.revoke(request.refreshToken());
+        }
+
+        logOutcome("Logout", "success", LogFields.usernameHash(jwt.getSubject()), start);
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Sesión cerrada"
+        ));
+    }
+
+    /**
+     * Endpoint para listar los usuarios OAuth2 registrados (solo admin), paginado por keyset
+     * GET /api/auth/users?provider=google&lastLoginFrom=2025-01-01T00:00:00&after=1234&size=50
+     * La respuesta trae nextCursor para pedir la página siguiente con ?after=
+     */
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getOAuth2Users(
+            @RequestParam(required = false) String provider,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginTo,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        List<UserProfileDTO> users = oauth2UserRepository.findProfilesAfter(
+                after, provider, lastLoginFrom, lastLoginTo, PageRequest.ofSize(pageSize));
+        Long nextCursor = users.size() == pageSize ? users.get(users.size() - 1).id() : null;
+
+        return ResponseEntity.ok(new UserPageDTO(users, nextCursor));
+    }
+
+    /**
+     * Exportación completa de usuarios OAuth2 en NDJSON (solo admin), con los mismos filtros
+     * GET /api/auth/users/export
+     * Se escribe a medida que se lee la tabla, sin armar la lista en memoria.
+     * Corre con su propio timeout async (app.user-export.timeout), no con el default de Spring MVC:
+     * pasado ese tiempo se corta la conexión (el 200 ya se mandó, así que el cliente ve un cuerpo
+     * incompleto); para tablas muy grandes conviene filtrar por provider / lastLogin.
+     */
+    @GetMapping("/users/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public WebAsyncTask<Void> exportOAuth2Users(
+            @RequestParam(required = false) String provider,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginTo,
+            HttpServletResponse response) {
+        response.setContentType(NDJSON);
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            userExportService.exportProfiles(provider, lastLoginFrom, lastLoginTo, response.getOutputStream());
+            return null;
+        });
+    }
+
+    /**
+     * @PreAuthorize rechazado: mismo 403 con cuerpo que antes (también sin sesión, en vez de 401)
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponseDTO> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ErrorResponseDTO.of("Forbidden", "Solo administradores pueden ver usuarios"));
+    }
 
-        return ResponseEntity.ok(users);
+    private void logOutcome(String event, String outcome, String usernameHash, long start) {
+        log.atInfo()
+                .setMessage("{} {}")
+                .addArgument(event)
+                .addArgument(outcome)
+                .addKeyValue(LogFields.USERNAME_HASH, usernameHash)
+                .addKeyValue(LogFields.PROVIDER, "local")
+                .addKeyValue(LogFields.OUTCOME, outcome)
+                .addKeyValue(LogFields.LATENCY_MS, LogFields.millisSince(start))
+                .log();
     }
 }
\ No newline at end of file
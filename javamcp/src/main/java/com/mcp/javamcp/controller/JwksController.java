@@ -0,0 +1,38 @@
+package com.mcp.javamcp.controller;
+
+import com.mcp.javamcp.security.JwtKeyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+public class JwksController {
+
+    private final JwtKeyManager keyManager;
+    private final CacheControl cacheControl;
+
+    public JwksController(
+            JwtKeyManager keyManager,
+            @Value("${app.security.jwt.jwks-max-age:5m}") Duration maxAge) {
+        this.keyManager = keyManager;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    /**
+     * Claves públicas para verificar los JWT: la activa y las anteriores que siguen vigentes
+     * GET /.well-known/jwks.json
+     * Cacheable por max-age; con If-None-Match responde 304 mientras no haya rotación
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(keyManager.jwksETag())
+                .body(keyManager.jwks());
+    }
+}
@@ -1,24 +1,37 @@
 package com.mcp.javamcp.controller;
 
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.service.OAuth2LoginStatsService;
+import com.mcp.javamcp.service.OAuth2UserProvisioningService;
+import com.mcp.javamcp.service.TokenService;
+import com.mcp.javamcp.utils.LogFields;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
-import org.springframework.security.oauth2.jwt.JwtClaimsSet;
-import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
 
+@Slf4j
 @Controller
 public class OAuth2SuccessController {
 
     @Autowired
-    private JwtEncoder jwtEncoder;
+    private TokenService tokenService;
+
+    @Autowired
+    private OAuth2UserProvisioningService provisioningService;
+
+    @Autowired
+    private OAuth2LoginStatsService loginStatsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     /**
      * Endpoint que maneja el éxito de autenticación (Form Login y OAuth2)
@@ -26,70 +39,88 @@ public class OAuth2SuccessController {
      */
     @GetMapping("/oauth2/success")
     public String oauth2Success(Authentication authentication) {
-        System.out.println("Autenticación exitosa para: " + authentication.getName());
-        System.out.println("Tipo de autenticación: " + authentication.getClass().getSimpleName());
+        long start = System.nanoTime();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String provider = "local";
 
         try {
             String username;
+            String providerId = null;
             String email = null;
-            String provider = "local";
+            String picture = null;
 
             // Detectar si es OAuth2 o Form Login
             if (authentication instanceof OAuth2AuthenticationToken) {
                 OAuth2AuthenticationToken oauth2Token = (OAuth2AuthenticationToken) authentication;
                 OAuth2User oauth2User = oauth2Token.getPrincipal();
                 provider = oauth2Token.getAuthorizedClientRegistrationId(); // "google" o "github"
+                providerId = oauth2User.getName(); // sub de Google, id de GitHub
 
                 // Extraer información según el provider
                 if ("google".equals(provider)) {
                     username = oauth2User.getAttribute("name");
                     email = oauth2User.getAttribute("email");
+                    picture = oauth2User.getAttribute("picture");
                 } else if ("github".equals(provider)) {
                     username = oauth2User.getAttribute("login");
                     email = oauth2User.getAttribute("email");
+                    picture = oauth2User.getAttribute("avatar_url");
                 } else {
                     username = oauth2User.getAttribute("name");
                 }
 
-                System.out.println("🔐 Login con " + provider.toUpperCase());
-                System.out.println("👤 Usuario: " + username);
-                System.out.println("📧 Email: " + email);
+                // Alta o actualización del usuario (un upsert); login_count / last_login van en batch, fuera del request
+                LocalDateTime now = LocalDateTime.now();
+                provisioningService.provision(provider, providerId, email, username, picture, now);
+                loginStatsService.recordLogin(provider, providerId, now);
 
             } else {
                 // Form Login tradicional
                 username = authentication.getName();
-                System.out.println("🔐 Login tradicional: " + username);
             }
 
-            // Generar JWT
-            JwtClaimsSet.Builder claimsBuilder = JwtClaimsSet.builder()
-                    .issuer("http://localhost:8080")
-                    .subject(username)
-                    .issuedAt(Instant.now())
-                    .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
-                    .claim("provider", provider)
-                    .claim("roles", authentication.getAuthorities().stream()
-                            .map(auth -> auth.getAuthority())
-                            .collect(Collectors.toList()));
-
-            // Agregar email si existe
-            if (email != null) {
-                claimsBuilder.claim("email", email);
-            }
-
-            String token = jwtEncoder.encode(
-                    JwtEncoderParameters.from(claimsBuilder.build())
-            ).getTokenValue();
-
-            System.out.println("✅ Token JWT generado");
+            log.atDebug()
+                    .setMessage("Login {} ({})")
+                    .addArgument(provider)
+                    .addArgument(() -> authentication.getClass().getSimpleName())
+                    .addKeyValue(LogFields.USERNAME_HASH, () -> LogFields.usernameHash(username))
+                    .log();
+
+            // Generar JWT (el email solo se agrega si existe)
+            String token = tokenService.issue(username, authentication.getAuthorities(), provider, providerId, email)
+                    .tokenValue();
+
+            log.atInfo()
+                    .setMessage("Login {}")
+                    .addArgument("success")
+                    .addKeyValue(LogFields.USERNAME_HASH, LogFields.usernameHash(username))
+                    .addKeyValue(LogFields.PROVIDER, provider)
+                    .addKeyValue(LogFields.OUTCOME, "success")
+                    .addKeyValue(LogFields.LATENCY_MS, LogFields.millisSince(start))
+                    .log();
+            stopTimer(sample, provider, "success");
 
             // Redirigir al frontend con el token
             return "redirect:http://localhost:3000/dashboard.html?token=" + token;
 
         } catch (Exception e) {
-            System.err.println("❌ Error generando token: " + e.getMessage());
-            e.printStackTrace();
+            log.atError()
+                    .setMessage("Error generando token")
+                    .setCause(e)
+                    .addKeyValue(LogFields.PROVIDER, provider)
+                    .addKeyValue(LogFields.OUTCOME, "error")
+                    .addKeyValue(LogFields.LATENCY_MS, LogFields.millisSince(start))
+                    .log();
+            stopTimer(sample, provider, "error");
             return "redirect:http://localhost:3000/login.html?error=true";
         }
     }
+
+    private void stopTimer(Timer.Sample sample, String provider, String outcome) {
+        sample.stop(Timer.builder(AuthMetrics.OAUTH2_SUCCESS)
+                .description("Flujo /oauth2/success (armado de claims, firma y redirect)")
+                .tag(AuthMetrics.PROVIDER, provider)
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry));
+    }
 }
\ No newline at end of file
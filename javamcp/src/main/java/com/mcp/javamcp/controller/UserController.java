@@ -3,20 +3,32 @@ package com.mcp.javamcp.controller;
 import com.mcp.javamcp.dto.ErrorResponseDTO;
 import com.mcp.javamcp.dto.RegisterRequestDTO;
 import com.mcp.javamcp.dto.UserProfileDTO;
+import com.mcp.javamcp.model.OAuth2User;
 import com.mcp.javamcp.model.User;
 import com.mcp.javamcp.repository.UserRepository;
 import com.mcp.javamcp.repository.OAuth2UserRepository;
+import com.mcp.javamcp.service.CustomUserDetailsService;
+import com.mcp.javamcp.service.RefreshTokenService;
+import com.mcp.javamcp.service.TokenRevocationService;
+import com.mcp.javamcp.service.TokenService;
+import com.mcp.javamcp.service.UsernameAvailabilityService;
+import com.mcp.javamcp.utils.LogFields;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -31,6 +43,36 @@ public class UserController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UsernameAvailabilityService usernameAvailabilityService;
+
+    /**
+     * Disponibilidad de un username para el formulario de registro (público)
+     * GET /api/users/check/{username}
+     * En el caso común (username libre) se resuelve en memoria, sin ir a la BD
+     */
+    @GetMapping("/check/{username}")
+    public ResponseEntity<?> checkUsername(@PathVariable String username) {
+        if (username.isBlank() || username.length() < 3 || username.length() > 50) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorResponseDTO.of("Datos inválidos", "Username debe tener entre 3 y 50 caracteres"));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "username", username,
+                "available", usernameAvailabilityService.isAvailable(username)
+        ));
+    }
+
     /**
      * Registro de nuevo usuario (público)
      * POST /api/users/register
@@ -38,10 +80,12 @@ public class UserController {
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequestDTO request) {
         try {
-            System.out.println("📝 Intento de registro para: " + request.username());
+            if (log.isDebugEnabled()) {
+                log.debug("Intento de registro {}", LogFields.usernameHash(request.username()));
+            }
 
-            // Verificar si el usuario ya existe
-            if (userRepository.findByUsername(request.username()).isPresent()) {
+            // Verificar si el usuario ya existe (sin cargar la entidad)
+            if (userRepository.existsByUsername(request.username())) {
                 return ResponseEntity.status(HttpStatus.CONFLICT)
                         .body(ErrorResponseDTO.of("Usuario ya existe",
                                 "El nombre de usuario '" + request.username() + "' ya está en uso"));
@@ -54,8 +98,14 @@ public class UserController {
             newUser.setRoles("USER"); // Por defecto USER
 
             userRepository.save(newUser);
+            userDetailsService.evict(newUser.getUsername()); // por si estaba cacheado como inexistente
+            usernameAvailabilityService.add(newUser.getUsername());
 
-            System.out.println("✅ Usuario registrado exitosamente: " + request.username());
+            log.atInfo()
+                    .setMessage("Usuario registrado")
+                    .addKeyValue(LogFields.USERNAME_HASH, LogFields.usernameHash(request.username()))
+                    .addKeyValue(LogFields.OUTCOME, "registered")
+                    .log();
 
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                     "success", true,
@@ -64,7 +114,7 @@ public class UserController {
             ));
 
         } catch (Exception e) {
-            System.err.println("❌ Error en registro: " + e.getMessage());
+            log.error("Error en registro", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ErrorResponseDTO.of("Error en registro", e.getMessage()));
         }
@@ -90,7 +140,7 @@ public class UserController {
         }
 
         // Buscar en usuarios OAuth2
-        var oauth2User = oauth2UserRepository.findByEmail(username);
+        var oauth2User = oauth2Account(authentication);
         if (oauth2User.isPresent()) {
             return ResponseEntity.ok(UserProfileDTO.from(oauth2User.get()));
         }
@@ -111,7 +161,7 @@ public class UserController {
         String username = authentication.getName();
 
         // Buscar usuario OAuth2
-        var oauth2User = oauth2UserRepository.findByEmail(username);
+        var oauth2User = oauth2Account(authentication);
         if (oauth2User.isPresent()) {
             var user = oauth2User.get();
 
@@ -134,6 +184,7 @@ public class UserController {
     /**
      * Cambiar contraseña (solo para usuarios locales)
      * PUT /api/users/change-password
+     * Cierra todas las sesiones abiertas: los tokens emitidos hasta ahora quedan revocados
      */
     @PutMapping("/change-password")
     @PreAuthorize("isAuthenticated()")
@@ -167,6 +218,8 @@ public class UserController {
         // Actualizar contraseña
         user.get().setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user.get());
+        userDetailsService.evict(username);
+        revokeSessions(username);
 
         return ResponseEntity.ok(Map.of(
                 "success", true,
@@ -177,6 +230,7 @@ public class UserController {
     /**
      * Eliminar cuenta del usuario
      * DELETE /api/users/profile
+     * Los tokens del usuario quedan revocados
      */
     @DeleteMapping("/profile")
     @PreAuthorize("isAuthenticated()")
@@ -187,6 +241,8 @@ public class UserController {
         var user = userRepository.findByUsername(username);
         if (user.isPresent()) {
             userRepository.delete(user.get());
+            userDetailsService.evict(username);
+            revokeSessions(username);
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Cuenta eliminada"
@@ -194,9 +250,10 @@ public class UserController {
         }
 
         // Intentar borrar de usuarios OAuth2
-        var oauth2User = oauth2UserRepository.findByEmail(username);
+        var oauth2User = oauth2Account(authentication);
         if (oauth2User.isPresent()) {
             oauth2UserRepository.delete(oauth2User.get());
+            revokeSessions(username);
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Cuenta eliminada"
@@ -205,4 +262,25 @@ public class UserController {
 
         return ResponseEntity.notFound().build();
     }
+
+    /**
+     * Fila de oauth2_users del token (claims provider + provider_id); el email no sirve de clave
+     * porque el mismo email puede estar con dos providers
+     */
+    private Optional<OAuth2User> oauth2Account(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            Jwt jwt = jwtAuthentication.getToken();
+            String provider = jwt.getClaimAsString(TokenService.PROVIDER_CLAIM);
+            String providerId = jwt.getClaimAsString(TokenService.PROVIDER_ID_CLAIM);
+            if (provider != null && providerId != null) {
+                return oauth2UserRepository.findByProviderAndProviderId(provider, providerId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void revokeSessions(String username) {
+        tokenRevocationService.revokeAllFor(username);
+        refreshTokenService.revokeAll(username);
+    }
 }
@@ -0,0 +1,65 @@
+package com.mcp.javamcp.controller;
+
+import com.mcp.javamcp.dto.ErrorResponseDTO;
+import com.mcp.javamcp.service.UserImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/users")
+public class UserImportController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    /**
+     * Importación masiva de usuarios (solo admin)
+     * POST /api/users/import con Content-Type text/csv o application/x-ndjson
+     * El body se procesa a medida que llega; la respuesta trae el resumen y filas/s
+     * Para archivos grandes conviene la importación por línea de comando (ver README)
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        UserImportService.Format format;
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            format = UserImportService.Format.CSV;
+        } else if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            format = UserImportService.Format.NDJSON;
+        } else {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(ErrorResponseDTO.of("Formato no soportado", "Usar text/csv o application/x-ndjson"));
+        }
+
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorResponseDTO.of("Archivo inválido", e.getMessage()));
+        }
+    }
+
+    /**
+     * @PreAuthorize rechazado: 403 con cuerpo, como el resto de los errores del controller
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponseDTO> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ErrorResponseDTO.of("Forbidden", "Solo administradores pueden importar usuarios"));
+    }
+}
@@ -7,15 +7,17 @@ public record LoginResponseDTO(
         String token,
         String username,
         List<String> roles,
-        int expiresIn
+        int expiresIn,
+        String refreshToken
 ) {
     // Constructor estático para crear respuesta exitosa
-    public static LoginResponseDTO success(String token, String username, List<String> roles, int expiresIn) {
-        return new LoginResponseDTO(true, token, username, roles, expiresIn);
+    public static LoginResponseDTO success(String token, String username, List<String> roles, int expiresIn,
+                                           String refreshToken) {
+        return new LoginResponseDTO(true, token, username, roles, expiresIn, refreshToken);
     }
 
     // Constructor estático para crear respuesta de error
     public static LoginResponseDTO error() {
-        return new LoginResponseDTO(false, null, null, null, 0);
+        return new LoginResponseDTO(false, null, null, null, 0, null);
     }
 }
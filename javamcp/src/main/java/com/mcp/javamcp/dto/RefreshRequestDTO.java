@@ -0,0 +1,7 @@
+package com.mcp.javamcp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequestDTO(
+        @NotBlank(message = "Refresh token es requerido")
+        String refreshToken) {}
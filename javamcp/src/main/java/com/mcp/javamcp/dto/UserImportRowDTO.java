@@ -0,0 +1,14 @@
+package com.mcp.javamcp.dto;
+
+/**
+ * Fila de la importación masiva de usuarios (CSV con header o NDJSON, mismos nombres de campo).
+ * password en claro se hashea al importar; passwordHash ya viene en el formato guardado
+ * ({bcrypt}..., {argon2}..., {pbkdf2}... o $2a$/$2b$/$2y$ de BCrypt). roles vacío = "USER".
+ */
+public record UserImportRowDTO(
+        String username,
+        String password,
+        String passwordHash,
+        String roles
+) {
+}
@@ -0,0 +1,13 @@
+package com.mcp.javamcp.dto;
+
+import java.util.List;
+
+/**
+ * Página del listado de usuarios OAuth2.
+ * nextCursor va como ?after= en el próximo pedido; null cuando no hay más.
+ */
+public record UserPageDTO(
+        List<UserProfileDTO> users,
+        Long nextCursor
+) {
+}
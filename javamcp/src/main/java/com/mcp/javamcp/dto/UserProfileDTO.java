@@ -1,5 +1,7 @@
 package com.mcp.javamcp.dto;
 
+import com.mcp.javamcp.model.Role;
+
 import java.time.LocalDateTime;
 
 public record UserProfileDTO(
@@ -12,6 +14,12 @@ public record UserProfileDTO(
         Integer loginCount,
         String roles
 ) {
+    // Proyección JPQL (OAuth2UserRepository): los roles llegan como bitmask
+    public UserProfileDTO(Long id, String email, String name, String picture, String provider,
+                          LocalDateTime lastLogin, Integer loginCount, int roleMask) {
+        this(id, email, name, picture, provider, lastLogin, loginCount, Role.format(roleMask));
+    }
+
     // Método para crear desde entidad OAuth2User
     public static UserProfileDTO from(com.mcp.javamcp.model.OAuth2User user) {
         return new UserProfileDTO(
@@ -0,0 +1,33 @@
+package com.mcp.javamcp.metrics;
+
+/**
+ * Nombres de métricas y tags del pipeline de autenticación.
+ * Con management.metrics.distribution.percentiles-histogram.auth=true todos publican histograma.
+ */
+public final class AuthMetrics {
+
+    public static final String AUTHENTICATE = "auth.authenticate";
+    public static final String PASSWORD_VERIFY = "auth.password.verify";
+    public static final String PASSWORD_ENCODE = "auth.password.encode";
+    public static final String USER_LOOKUP = "auth.user.lookup";
+    public static final String JWT_ENCODE = "auth.jwt.encode";
+    public static final String JWT_DECODE = "auth.jwt.decode";
+    public static final String OAUTH2_SUCCESS = "auth.oauth2.success";
+    public static final String OAUTH2_PROVISION = "auth.oauth2.provision";
+    public static final String REFRESH = "auth.refresh";
+    public static final String LOGIN_STATS = "auth.oauth2.login.stats";
+    public static final String LOGIN_STATS_PENDING = "auth.oauth2.login.stats.pending";
+    public static final String LOGIN_STATS_FLUSH = "auth.oauth2.login.stats.flush";
+    public static final String REVOCATION_CHECK = "auth.jwt.revocation";
+    public static final String LOGIN_LOCKOUT = "auth.login.lockout";
+    public static final String USERNAME_CHECK = "auth.username.check";
+    public static final String RATE_LIMIT = "auth.ratelimit";
+    public static final String RATE_LIMIT_KEYS = "auth.ratelimit.keys";
+
+    public static final String OUTCOME = "outcome";
+    public static final String PROVIDER = "provider";
+    public static final String LIMIT = "limit";
+
+    private AuthMetrics() {
+    }
+}
@@ -0,0 +1,33 @@
+package com.mcp.javamcp.metrics;
+
+import com.mcp.javamcp.security.RateLimitStore;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/ratelimit: buckets activos y las claves más rechazadas
+ * ("ip:1.2.3.4" o "user:" + hash del username, nunca el username en claro)
+ */
+@Component
+@Endpoint(id = "ratelimit")
+public class RateLimitEndpoint {
+
+    private static final int TOP_KEYS = 50;
+
+    private final RateLimitStore store;
+
+    public RateLimitEndpoint(RateLimitStore store) {
+        this.store = store;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rateLimits() {
+        return Map.of(
+                "activeKeys", store.size(),
+                "topRejected", store.topRejected(TOP_KEYS)
+        );
+    }
+}
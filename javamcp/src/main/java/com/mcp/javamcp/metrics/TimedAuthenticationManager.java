@@ -0,0 +1,52 @@
+package com.mcp.javamcp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide AuthenticationManager.authenticate por resultado
+ */
+public class TimedAuthenticationManager implements AuthenticationManager {
+
+    private final AuthenticationManager delegate;
+    private final Timer success;
+    private final Timer badCredentials;
+    private final Timer error;
+
+    public TimedAuthenticationManager(AuthenticationManager delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.success = timer(meterRegistry, "success");
+        this.badCredentials = timer(meterRegistry, "bad_credentials");
+        this.error = timer(meterRegistry, "error");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        long start = System.nanoTime();
+        Timer timer = error;
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            timer = success;
+            return result;
+        } catch (BadCredentialsException e) {
+            timer = badCredentials;
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(AuthMetrics.AUTHENTICATE)
+                .description("AuthenticationManager.authenticate")
+                .tag(AuthMetrics.PROVIDER, "local")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+}
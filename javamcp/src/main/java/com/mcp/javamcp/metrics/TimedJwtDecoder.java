@@ -0,0 +1,45 @@
+package com.mcp.javamcp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide JwtDecoder.decode por resultado (incluye los aciertos del cache de JWT)
+ */
+public class TimedJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Timer valid;
+    private final Timer invalid;
+
+    public TimedJwtDecoder(JwtDecoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.valid = timer(meterRegistry, "valid");
+        this.invalid = timer(meterRegistry, "invalid");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        Timer timer = invalid;
+        try {
+            Jwt jwt = delegate.decode(token);
+            timer = valid;
+            return jwt;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(AuthMetrics.JWT_DECODE)
+                .description("Verificación de JWT en el resource server")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+}
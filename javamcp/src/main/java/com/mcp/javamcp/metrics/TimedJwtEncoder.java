@@ -0,0 +1,29 @@
+package com.mcp.javamcp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+
+/**
+ * Mide JwtEncoder.encode (armado de claims + firma)
+ */
+public class TimedJwtEncoder implements JwtEncoder {
+
+    private final JwtEncoder delegate;
+    private final Timer timer;
+
+    public TimedJwtEncoder(JwtEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timer = Timer.builder(AuthMetrics.JWT_ENCODE)
+                .description("Emisión y firma de JWT")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        return timer.record(() -> delegate.encode(parameters));
+    }
+}
@@ -0,0 +1,17 @@
+package com.mcp.javamcp.model;
+
+/**
+ * Asignación de ids por secuencia (users_seq, oauth2_users_seq).
+ *
+ * Cada nextval reserva un bloque de ALLOCATION_SIZE ids [valor - ALLOCATION_SIZE + 1, valor]
+ * (optimizer pooled de Hibernate): un insert no necesita ir a la BD por su id y los inserts
+ * se pueden mandar en batch. El INCREMENT BY de las secuencias tiene que ser igual a este valor;
+ * para cambiarlo, cambiar la constante y agregar una migración con ALTER SEQUENCE ... INCREMENT BY.
+ */
+public final class Ids {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private Ids() {
+    }
+}
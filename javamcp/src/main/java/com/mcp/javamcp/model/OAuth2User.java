@@ -13,15 +13,22 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Getter
 @Setter
-@Table(name = "oauth2_users")
+@Table(name = "oauth2_users", uniqueConstraints = {
+        // Clave del upsert de OAuth2UserProvisioningService (ver db/migration/V2)
+        @UniqueConstraint(name = "uk_oauth2_users_provider_provider_id", columnNames = {"provider", "providerId"})
+}, indexes = {
+        // Listado de admin: filtro por provider + seek por id, y rango de último login
+        @Index(name = "idx_oauth2_users_provider_id", columnList = "provider, id"),
+        @Index(name = "idx_oauth2_users_last_login", columnList = "lastLogin")
+})
 public class OAuth2User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "oauth2_users_seq")
+    @SequenceGenerator(name = "oauth2_users_seq", sequenceName = "oauth2_users_seq", allocationSize = Ids.ALLOCATION_SIZE)
     private Long id;
 
-    @Column(nullable = false)
-    private String email;
+    private String email; // GitHub puede no exponerlo
 
     private String name;
 
@@ -30,7 +37,6 @@ public class OAuth2User {
     @Column(nullable = false)
     private String provider;
 
-    @Column(unique = true)
     private String providerId;
 
     private LocalDateTime firstLogin;
@@ -39,6 +45,17 @@ public class OAuth2User {
 
     private Integer loginCount = 0;
 
-    @Column(columnDefinition = "TEXT")
-    private String roles = "USER";
+    @Column(name = "role_mask", nullable = false)
+    private int roleMask = Role.USER.bit();
+
+    /**
+     * "ADMIN,USER"
+     */
+    public String getRoles() {
+        return Role.format(roleMask);
+    }
+
+    public void setRoles(String roles) {
+        this.roleMask = Role.parseMask(roles);
+    }
 }
\ No newline at end of file
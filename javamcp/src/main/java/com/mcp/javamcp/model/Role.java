@@ -0,0 +1,77 @@
+package com.mcp.javamcp.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Roles de la aplicación. Se guardan como bitmask (columna role_mask): cada rol es un bit fijo,
+ * así que agregar un rol no cambia los valores ya guardados. Declarados en orden alfabético,
+ * que es el orden en que salen las authorities.
+ */
+public enum Role {
+
+    ADMIN(1 << 1),
+    USER(1 << 0);
+
+    public static final int ALL = ADMIN.bit | USER.bit;
+
+    private final int bit;
+    private final GrantedAuthority authority;
+
+    Role(int bit) {
+        this.bit = bit;
+        this.authority = new SimpleGrantedAuthority("ROLE_" + name());
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * "ROLE_ADMIN", la misma instancia siempre
+     */
+    public GrantedAuthority authority() {
+        return authority;
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & bit) != 0;
+    }
+
+    /**
+     * "ADMIN,USER" (con o sin prefijo ROLE_, mayúsculas o minúsculas) a bitmask
+     */
+    public static int parseMask(String roles) {
+        int mask = 0;
+        if (roles == null) {
+            return mask;
+        }
+        for (String name : roles.split(",")) {
+            String role = name.strip().toUpperCase(Locale.ROOT);
+            if (role.isEmpty()) {
+                continue;
+            }
+            if (role.startsWith("ROLE_")) {
+                role = role.substring("ROLE_".length());
+            }
+            mask |= valueOf(role).bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Bitmask a "ADMIN,USER"
+     */
+    public static String format(int mask) {
+        StringJoiner roles = new StringJoiner(",");
+        for (Role role : values()) {
+            if (role.isIn(mask)) {
+                roles.add(role.name());
+            }
+        }
+        return roles.toString();
+    }
+}
@@ -15,7 +15,8 @@ import lombok.Setter;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = Ids.ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -24,6 +25,18 @@ public class User {
     @Column(nullable = false)
     private String password;
 
-    private String roles; // "USER,ADMIN"
+    @Column(name = "role_mask", nullable = false)
+    private int roleMask; // bits de Role
+
+    /**
+     * "ADMIN,USER"
+     */
+    public String getRoles() {
+        return Role.format(roleMask);
+    }
+
+    public void setRoles(String roles) {
+        this.roleMask = Role.parseMask(roles);
+    }
 
 }
\ No newline at end of file
@@ -1,11 +1,54 @@
 package com.mcp.javamcp.repository;
 
+import com.mcp.javamcp.dto.UserProfileDTO;
 import com.mcp.javamcp.model.OAuth2User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OAuth2UserRepository extends JpaRepository<OAuth2User, Long> {
-    Optional<OAuth2User> findByEmail(String email);
     Optional<OAuth2User> findByProviderAndProviderId(String provider, String providerId);
-}
\ No newline at end of file
+
+    String PROFILE_QUERY = "select new com.mcp.javamcp.dto.UserProfileDTO(" +
+            "u.id, u.email, u.name, u.picture, u.provider, u.lastLogin, u.loginCount, u.roleMask) " +
+            "from OAuth2User u " +
+            "where u.id > :afterId " +
+            "and (:provider is null or u.provider = :provider) " +
+            "and (:lastLoginFrom is null or u.lastLogin >= :lastLoginFrom) " +
+            "and (:lastLoginTo is null or u.lastLogin < :lastLoginTo) " +
+            "order by u.id";
+
+    /**
+     * Página por keyset: los usuarios con id > afterId (sin OFFSET ni count). Filtros null = sin filtro.
+     * Devuelve DTOs, no entidades: no quedan en el persistence context.
+     */
+    @Query(PROFILE_QUERY)
+    List<UserProfileDTO> findProfilesAfter(@Param("afterId") long afterId,
+                                           @Param("provider") String provider,
+                                           @Param("lastLoginFrom") LocalDateTime lastLoginFrom,
+                                           @Param("lastLoginTo") LocalDateTime lastLoginTo,
+                                           Pageable limit);
+
+    /**
+     * Mismos filtros recorridos con un cursor JDBC (fetch size 500); requiere una transacción abierta
+     * y cerrar el Stream
+     */
+    @Query(PROFILE_QUERY)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserProfileDTO> streamProfilesAfter(@Param("afterId") long afterId,
+                                               @Param("provider") String provider,
+                                               @Param("lastLoginFrom") LocalDateTime lastLoginFrom,
+                                               @Param("lastLoginTo") LocalDateTime lastLoginTo);
+}
@@ -0,0 +1,43 @@
+package com.mcp.javamcp.repository;
+
+import com.mcp.javamcp.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Marca el token como usado solo si nadie lo usó antes (0 = ya estaba rotado)
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.usedAt = :now where t.id = :id and t.usedAt is null")
+    int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteByFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken t where t.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    /**
+     * Borra hasta batchSize tokens vencidos; se llama en loop para no bloquear la tabla con un DELETE gigante
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN " +
+            "(SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,34 @@
+package com.mcp.javamcp.repository;
+
+import com.mcp.javamcp.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    Optional<RevokedToken> findByTokenKey(String tokenKey);
+
+    /**
+     * Claves revocadas desde "since" (carga incremental del Bloom filter)
+     */
+    @Query("select r.tokenKey from RevokedToken r where r.revokedAt >= :since")
+    List<String> findKeysRevokedSince(@Param("since") Instant since);
+
+    /**
+     * Claves todavía vigentes (reconstrucción completa del Bloom filter)
+     */
+    @Query("select r.tokenKey from RevokedToken r where r.expiresAt > :now")
+    List<String> findActiveKeys(@Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM revoked_tokens WHERE id IN " +
+            "(SELECT id FROM revoked_tokens WHERE expires_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
@@ -1,11 +1,40 @@
 package com.mcp.javamcp.repository;
 
 import com.mcp.javamcp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    /**
+     * select ... limit 1, sin cargar la entidad (ni el hash de la contraseña)
+     */
+    boolean existsByUsername(String username);
+
+    /**
+     * Todos los usernames con un cursor JDBC (fetch size 1000); requiere una transacción abierta
+     * y cerrar el Stream
+     */
+    @Query("select u.username from User u")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamUsernames();
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
 
@@ -0,0 +1,56 @@
+package com.mcp.javamcp.security;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * UserDetails de un usuario local con las authorities compartidas de RoleAuthorities.
+ * A diferencia de User de Spring no copia las authorities a un TreeSet en cada construcción.
+ */
+public final class AccountUserDetails implements UserDetails, CredentialsContainer {
+
+    private final String username;
+    private final RoleAuthorities authorities;
+    private String password;
+
+    public AccountUserDetails(String username, String password, RoleAuthorities authorities) {
+        this.username = username;
+        this.password = password;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public RoleAuthorities getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AccountUserDetails other && username.equals(other.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Username=" + username + ", Authorities=" + authorities.names() + "]";
+    }
+}
@@ -0,0 +1,120 @@
+package com.mcp.javamcp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado para la verificación de passwords (BCrypt y compañía).
+ *
+ * Un pico de logins ocupa como mucho "threads" hilos y "queue-capacity" lugares en cola;
+ * el resto se rechaza enseguida con LoginCapacityExceededException (503 + Retry-After)
+ * en vez de bloquear todos los hilos de Tomcat y frenar endpoints baratos.
+ */
+@Component
+public class BoundedAuthenticationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    public BoundedAuthenticationExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.login-pool.threads:0}") int threads,
+            @Value("${app.security.login-pool.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.login-pool.timeout:5s}") Duration timeout,
+            @Value("${app.security.login-pool.retry-after:2s}") Duration retryAfter) {
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new LoginThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+
+        Gauge.builder("auth.login.pool.queue.size", executor, e -> e.getQueue().size())
+                .description("Logins esperando un hilo de verificación")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.pool.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Verificaciones de password en curso")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.login.pool.wait")
+                .description("Tiempo en cola antes de verificar el password")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.login.pool.rejected")
+                .description("Logins rechazados por pool saturado o timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la autenticación en el pool y espera el resultado.
+     * Las AuthenticationException de la tarea se relanzan tal cual.
+     */
+    public Authentication authenticate(Supplier<Authentication> task) {
+        long submittedAt = System.nanoTime();
+        Future<Authentication> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new LoginCapacityExceededException("Pool de login saturado", retryAfter);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new LoginCapacityExceededException("Timeout esperando verificación de password", retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new AuthenticationServiceException("Error verificando credenciales", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Login interrumpido", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class LoginThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "login-verify-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mcp.javamcp.security;
+
+/**
+ * Refresh token inexistente, vencido o reutilizado; el cliente tiene que volver a loguearse
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.mcp.javamcp.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Llavero de JWT: la clave activa (firma) más las N anteriores (solo verificación).
+ *
+ * Cada rotación arma un KeyRing inmutable nuevo y lo publica con una escritura volátil:
+ * firmar, buscar por kid y servir el JWKS son lecturas sin lock. La verificación va directo
+ * al verifier ya construido del kid del header, sin probar claves en secuencia.
+ * Con previous-keys × intervalo de rotación ≥ vida del token, ningún token vigente queda huérfano.
+ */
+public class JwtKeyManager {
+
+    private final int previousKeys;
+    private volatile KeyRing ring;
+
+    public JwtKeyManager(JwtSigningKey activeKey, int previousKeys) {
+        this.previousKeys = Math.max(previousKeys, 0);
+        this.ring = KeyRing.of(activeKey, List.of());
+    }
+
+    public JwtSigningKey active() {
+        return ring.active();
+    }
+
+    /**
+     * Clave (activa o anterior) con ese kid, o null si no está en el llavero
+     */
+    public JwtSigningKey find(String keyId) {
+        return ring.byKeyId().get(keyId);
+    }
+
+    /**
+     * Claves anteriores que todavía verifican, de la más nueva a la más vieja
+     */
+    public List<JwtSigningKey> previous() {
+        return ring.previous();
+    }
+
+    /**
+     * JWKS público (activa + anteriores), ya serializado a mapa para responder sin rearmarlo
+     */
+    public Map<String, Object> jwks() {
+        return ring.jwks();
+    }
+
+    /**
+     * Cambia cada vez que cambia el conjunto de kids publicados
+     */
+    public String jwksETag() {
+        return ring.eTag();
+    }
+
+    /**
+     * Pasa a firmar con nextKey; la activa actual queda como anterior y la más vieja sale del llavero.
+     * Devuelve false si nextKey ya es la activa (mismo kid).
+     */
+    public synchronized boolean rotate(JwtSigningKey nextKey) {
+        KeyRing current = ring;
+        if (current.active().keyId().equals(nextKey.keyId())) {
+            return false;
+        }
+
+        List<JwtSigningKey> previous = new ArrayList<>(previousKeys);
+        if (previousKeys > 0) {
+            previous.add(current.active());
+        }
+        for (JwtSigningKey key : current.previous()) {
+            if (previous.size() >= previousKeys) {
+                break;
+            }
+            if (!key.keyId().equals(nextKey.keyId())) {
+                previous.add(key);
+            }
+        }
+
+        ring = KeyRing.of(nextKey, previous);
+        return true;
+    }
+
+    private record KeyRing(JwtSigningKey active,
+                           List<JwtSigningKey> previous,
+                           Map<String, JwtSigningKey> byKeyId,
+                           Map<String, Object> jwks,
+                           String eTag) {
+
+        static KeyRing of(JwtSigningKey active, List<JwtSigningKey> previous) {
+            Map<String, JwtSigningKey> byKeyId = new HashMap<>();
+            List<JWK> publicKeys = new ArrayList<>();
+            byKeyId.put(active.keyId(), active);
+            publicKeys.add(active.publicJwk());
+            for (JwtSigningKey key : previous) {
+                byKeyId.put(key.keyId(), key);
+                publicKeys.add(key.publicJwk());
+            }
+
+            String eTag = "\"" + Integer.toHexString(byKeyId.keySet().hashCode()) + "\"";
+            return new KeyRing(active, List.copyOf(previous), Map.copyOf(byKeyId),
+                    new JWKSet(publicKeys).toJSONObject(), eTag);
+        }
+    }
+}
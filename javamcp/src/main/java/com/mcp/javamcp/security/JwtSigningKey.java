@@ -0,0 +1,84 @@
+package com.mcp.javamcp.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Signer;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+
+/**
+ * Clave de firma de JWT con su algoritmo, signer y verifier ya construidos.
+ * Soporta RS256 (RSA), ES256 (EC P-256) y EdDSA (Ed25519, requiere Tink).
+ * Los signers/verifiers de Nimbus son thread-safe, se comparten entre requests.
+ */
+public final class JwtSigningKey {
+
+    public static final String RS256 = "RS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private final JWK publicJwk;
+    private final JWSAlgorithm algorithm;
+    private final JWSSigner signer;
+    private final JWSVerifier verifier;
+
+    private JwtSigningKey(JWK jwk, JWSAlgorithm algorithm, JWSSigner signer, JWSVerifier verifier) {
+        this.publicJwk = jwk.toPublicJWK();
+        this.algorithm = algorithm;
+        this.signer = signer;
+        this.verifier = verifier;
+    }
+
+    /**
+     * El algoritmo sale del tipo de clave: RSAKey → RS256, ECKey P-256 → ES256, OctetKeyPair Ed25519 → EdDSA
+     */
+    public static JwtSigningKey of(JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey rsaKey) {
+            return new JwtSigningKey(jwk, JWSAlgorithm.RS256,
+                    new RSASSASigner(rsaKey), new RSASSAVerifier(rsaKey.toPublicJWK()));
+        }
+        if (jwk instanceof ECKey ecKey && Curve.P_256.equals(ecKey.getCurve())) {
+            return new JwtSigningKey(jwk, JWSAlgorithm.ES256,
+                    new ECDSASigner(ecKey), new ECDSAVerifier(ecKey.toPublicJWK()));
+        }
+        if (jwk instanceof OctetKeyPair octetKeyPair && Curve.Ed25519.equals(octetKeyPair.getCurve())) {
+            return new JwtSigningKey(jwk, JWSAlgorithm.EdDSA,
+                    new Ed25519Signer(octetKeyPair), new Ed25519Verifier(octetKeyPair.toPublicJWK()));
+        }
+        throw new IllegalArgumentException("Clave JWT no soportada: " + jwk.getKeyType()
+                + " (se aceptan RSA, EC P-256 y Ed25519)");
+    }
+
+    public String keyId() {
+        return publicJwk.getKeyID();
+    }
+
+    public JWSAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    public JWSSigner signer() {
+        return signer;
+    }
+
+    public JWSVerifier verifier() {
+        return verifier;
+    }
+
+    /**
+     * Parte pública de la clave, lista para publicar en un JWKS
+     */
+    public JWK publicJwk() {
+        return publicJwk;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mcp.javamcp.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets en memoria, sin locks en el camino caliente.
+ *
+ * Cada bucket es un solo long (GCRA: el instante teórico en que el bucket vuelve a estar lleno)
+ * que se actualiza con CAS. Las claves se reparten en stripes; cada stripe se barre sola, como
+ * mucho una vez por SWEEP_INTERVAL, borrando los buckets ya llenos (equivalen a uno nuevo).
+ * Con la stripe llena (max-keys) las claves nuevas comparten un bucket de desborde por límite:
+ * sin eso, llenar el store con IPs o usernames distintos dejaría pasar todo lo nuevo sin límite.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private static final int STRIPES = 16;
+    private static final long SWEEP_INTERVAL = 10_000_000_000L; // 10s
+    private static final long FULL_SWEEP_INTERVAL = 1_000_000_000L; // 1s
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxKeysPerStripe;
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public LocalRateLimitStore(int maxKeys) {
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(now);
+        }
+    }
+
+    @Override
+    public long tryConsume(String key, RateLimit limit) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        stripe.sweepIfDue(now, maxKeysPerStripe);
+
+        Bucket bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            if (stripe.buckets.size() >= maxKeysPerStripe) {
+                overflowed.incrementAndGet();
+                bucket = stripe.overflow.computeIfAbsent(limit.name(), name -> new Bucket(now));
+                return bucket.tryConsume(now, limit.intervalNanos(), limit.burstNanos());
+            }
+            Bucket created = new Bucket(now);
+            bucket = stripe.buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        return bucket.tryConsume(now, limit.intervalNanos(), limit.burstNanos());
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    /**
+     * Requests que fueron al bucket de desborde porque su stripe estaba llena
+     */
+    public long overflowed() {
+        return overflowed.get();
+    }
+
+    @Override
+    public List<KeyStats> topRejected(int limit) {
+        List<KeyStats> stats = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.buckets.forEach((key, bucket) -> {
+                long rejected = bucket.rejected.get();
+                if (rejected > 0) {
+                    stats.add(new KeyStats(key, rejected));
+                }
+            });
+        }
+        stats.sort(Comparator.comparingLong(KeyStats::rejected).reversed());
+        return stats.size() > limit ? List.copyOf(stats.subList(0, limit)) : stats;
+    }
+
+    private static final class Stripe {
+
+        final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+        // Un bucket por nombre de límite (ip, username), compartido por las claves que no entran
+        final Map<String, Bucket> overflow = new ConcurrentHashMap<>();
+        final AtomicLong nextSweep;
+
+        Stripe(long now) {
+            this.nextSweep = new AtomicLong(now + SWEEP_INTERVAL);
+        }
+
+        void sweepIfDue(long now, int maxKeys) {
+            long next = nextSweep.get();
+            // Lleno se barre antes, pero no más de una vez por segundo (cada barrida recorre la stripe)
+            boolean due = now - next >= 0
+                    || (buckets.size() >= maxKeys && now - (next - SWEEP_INTERVAL) >= FULL_SWEEP_INTERVAL);
+            // Un solo hilo barre; los demás siguen de largo
+            if (due && nextSweep.compareAndSet(next, now + SWEEP_INTERVAL)) {
+                buckets.values().removeIf(bucket -> bucket.isFull(now));
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        final AtomicLong fullAt;
+        final AtomicLong rejected = new AtomicLong();
+
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        long tryConsume(long now, long interval, long burst) {
+            while (true) {
+                long current = fullAt.get();
+                long next = (current - now > 0 ? current : now) + interval;
+                long ahead = next - now;
+                if (ahead > burst) {
+                    rejected.incrementAndGet();
+                    return ahead - burst;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.mcp.javamcp.security;
+
+import java.time.Duration;
+
+/**
+ * El pool de verificación de passwords está saturado; el cliente debe reintentar más tarde
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginCapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,262 @@
+package com.mcp.javamcp.security;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.javamcp.dto.ErrorResponseDTO;
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.utils.LogFields;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rate limit (token bucket) de los endpoints que pagan un hash de password: login JSON,
+ * form login y registro. Corre en la cadena de Spring Security antes de cualquier consulta
+ * a la BD o BCrypt; pasado el límite responde 429 con Retry-After.
+ *
+ * Hay un bucket por IP y otro por username (el hash corto, en minúsculas), compartidos entre
+ * los tres endpoints. GET /api/users/check/{username} consume del mismo bucket por IP: responde
+ * sin BD, y sin límite serviría para enumerar usernames. Detrás de un proxy hace falta
+ * server.forward-headers-strategy para que getRemoteAddr sea la IP del cliente.
+ */
+@Slf4j
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> JSON_PATHS = Set.of("/api/auth/login", "/api/users/register");
+    private static final String FORM_LOGIN_PATH = "/login";
+    private static final String CHECK_PATH_PREFIX = "/api/users/check/";
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimitStore store;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RateLimit ipLimit;
+    private final RateLimit usernameLimit;
+    private final Counter ipRejected;
+    private final Counter usernameRejected;
+    private final Counter allowed;
+
+    public LoginRateLimitFilter(
+            RateLimitStore store,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.security.rate-limit.ip.capacity:30}") int ipCapacity,
+            @Value("${app.security.rate-limit.ip.period:1m}") Duration ipPeriod,
+            @Value("${app.security.rate-limit.username.capacity:10}") int usernameCapacity,
+            @Value("${app.security.rate-limit.username.period:5m}") Duration usernamePeriod) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipLimit = new RateLimit("ip", ipCapacity, ipPeriod);
+        this.usernameLimit = new RateLimit("username", usernameCapacity, usernamePeriod);
+
+        this.ipRejected = counter(meterRegistry, "ip", "rejected");
+        this.usernameRejected = counter(meterRegistry, "username", "rejected");
+        this.allowed = counter(meterRegistry, "all", "allowed");
+        Gauge.builder(AuthMetrics.RATE_LIMIT_KEYS, store, RateLimitStore::size)
+                .description("Buckets de rate limit activos")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = path(request);
+        if ("GET".equals(request.getMethod())) {
+            return !path.startsWith(CHECK_PATH_PREFIX);
+        }
+        return !"POST".equals(request.getMethod()) || !JSON_PATHS.contains(path) && !FORM_LOGIN_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long wait = store.tryConsume("ip:" + request.getRemoteAddr(), ipLimit);
+        if (wait > 0) {
+            ipRejected.increment();
+            reject(response, wait);
+            return;
+        }
+
+        if ("GET".equals(request.getMethod())) {
+            // Chequeo de username: solo el límite por IP (el de username dejaría bloquear registros ajenos)
+            allowed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        String username;
+        if (FORM_LOGIN_PATH.equals(path(request))) {
+            username = request.getParameter("username");
+        } else {
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            forwarded = new CachedBodyRequest(request, body);
+            username = jsonUsername(body);
+        }
+
+        if (username != null && !username.isBlank()) {
+            String key = "user:" + LogFields.usernameHash(username.strip().toLowerCase(Locale.ROOT));
+            wait = store.tryConsume(key, usernameLimit);
+            if (wait > 0) {
+                usernameRejected.increment();
+                log.atWarn()
+                        .setMessage("Rate limit por username")
+                        .addKeyValue(LogFields.USERNAME_HASH, key.substring("user:".length()))
+                        .addKeyValue(LogFields.OUTCOME, "rate_limited")
+                        .log();
+                reject(response, wait);
+                return;
+            }
+        }
+
+        allowed.increment();
+        chain.doFilter(forwarded, response);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, Duration.ofNanos(waitNanos).toSeconds() + 1);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponseDTO.of("Demasiados intentos", "Reintentá en " + retryAfterSeconds + " segundos"));
+    }
+
+    /**
+     * El campo "username" del primer nivel, sin armar el árbol del JSON
+     */
+    private String jsonUsername(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("username".equals(field) && value == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            // JSON inválido: lo rechaza el controller, acá solo cuenta el límite por IP
+            return null;
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String limit, String outcome) {
+        return Counter.builder(AuthMetrics.RATE_LIMIT)
+                .description("Requests de login/registro por resultado del rate limit")
+                .tag(AuthMetrics.LIMIT, limit)
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Request con el body ya leído, para que el controller lo pueda volver a leer
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // El body ya está en memoria: todo está disponible de entrada
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.mcp.javamcp.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Encoders de contraseñas con costo calibrado contra la CPU del host.
+ *
+ * BCrypt y Argon2 guardan sus parámetros dentro del hash, así que se pueden calibrar
+ * en cada arranque sin romper hashes viejos. PBKDF2 no los guarda: sus iteraciones
+ * son fijas por configuración.
+ */
+public final class PasswordHashing {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    // Mínimos: los defaults de Spring Security 5.8+
+    public static final int MIN_BCRYPT_STRENGTH = 10;
+    public static final int MIN_ARGON2_ITERATIONS = 2;
+    public static final int DEFAULT_PBKDF2_ITERATIONS = 310_000;
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int ARGON2_MEMORY_KB = 1 << 14;
+    private static final int MAX_ARGON2_ITERATIONS = 64;
+
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashing() {
+    }
+
+    /**
+     * DelegatingPasswordEncoder que codifica con idForEncode y sigue aceptando los otros
+     * algoritmos. Los hashes sin prefijo {id} (los BCrypt existentes en la tabla users)
+     * se verifican con BCrypt y se marcan para re-hash.
+     */
+    public static PasswordEncoder delegating(String idForEncode, PasswordEncoder bcrypt,
+                                             PasswordEncoder argon2, PasswordEncoder pbkdf2) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, argon2);
+        encoders.put(PBKDF2, pbkdf2);
+
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("Algoritmo de password no soportado: " + idForEncode);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    public static BCryptPasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    public static Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                ARGON2_PARALLELISM, ARGON2_MEMORY_KB, iterations);
+    }
+
+    public static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Mayor strength de BCrypt cuyo hash tarda como mucho target (nunca menos que minStrength).
+     * Cada punto de strength duplica el costo, así que alcanza con medir uno y extrapolar.
+     */
+    public static int calibrateBcryptStrength(Duration target, int minStrength) {
+        int probe = 8;
+        long nanos = measure(PasswordHashing::bcrypt, probe);
+        int strength = probe;
+        while (strength < 31 && nanos * 2 <= target.toNanos()) {
+            nanos *= 2;
+            strength++;
+        }
+        return Math.max(strength, minStrength);
+    }
+
+    /**
+     * Iteraciones de Argon2 (memoria fija) para acercarse a target sin pasarse
+     */
+    public static int calibrateArgon2Iterations(Duration target, int minIterations) {
+        long perIteration = Math.max(1, measure(PasswordHashing::argon2, 1));
+        int iterations = (int) Math.min(MAX_ARGON2_ITERATIONS, target.toNanos() / perIteration);
+        return Math.max(iterations, minIterations);
+    }
+
+    private static long measure(IntFunction<PasswordEncoder> factory, int cost) {
+        PasswordEncoder encoder = factory.apply(cost);
+        encoder.encode(SAMPLE_PASSWORD); // warm-up
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,29 @@
+package com.mcp.javamcp.security;
+
+import java.time.Duration;
+
+/**
+ * Token bucket: hasta capacity requests de golpe, recargando capacity tokens por period
+ */
+public record RateLimit(String name, int capacity, Duration period) {
+
+    public RateLimit {
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit inválido: " + name);
+        }
+    }
+
+    /**
+     * Nanos entre tokens
+     */
+    public long intervalNanos() {
+        return period.toNanos() / capacity;
+    }
+
+    /**
+     * Cuánto puede adelantarse el bucket (capacity tokens) antes de rechazar
+     */
+    public long burstNanos() {
+        return intervalNanos() * capacity;
+    }
+}
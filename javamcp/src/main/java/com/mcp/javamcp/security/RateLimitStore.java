@@ -0,0 +1,33 @@
+package com.mcp.javamcp.security;
+
+import java.util.List;
+
+/**
+ * Estado de los token buckets del rate limiter.
+ *
+ * LocalRateLimitStore lo guarda en memoria (un nodo, y los tests). Para compartir los límites
+ * entre nodos alcanza con registrar otro bean RateLimitStore (por ejemplo Redis con un script
+ * GCRA) que use el reloj del backend y no el de cada nodo.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Consume un token del bucket key; devuelve 0 si pasó o los nanos que faltan para el próximo
+     */
+    long tryConsume(String key, RateLimit limit);
+
+    /**
+     * Cantidad de buckets activos
+     */
+    long size();
+
+    /**
+     * Las claves con más rechazos (para el endpoint de actuator); vacío si el backend no lo soporta
+     */
+    default List<KeyStats> topRejected(int limit) {
+        return List.of();
+    }
+
+    record KeyStats(String key, long rejected) {
+    }
+}
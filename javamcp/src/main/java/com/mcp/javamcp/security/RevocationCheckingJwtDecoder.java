@@ -0,0 +1,31 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.service.TokenRevocationService;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * JwtDecoder que rechaza los tokens revocados.
+ * Va por fuera de CachingJwtDecoder: un token cacheado como válido se vuelve a chequear en cada request.
+ */
+public class RevocationCheckingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final TokenRevocationService revocationService;
+
+    public RevocationCheckingJwtDecoder(JwtDecoder delegate, TokenRevocationService revocationService) {
+        this.delegate = delegate;
+        this.revocationService = revocationService;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = delegate.decode(token);
+        if (revocationService.isRevoked(jwt)) {
+            throw new BadJwtException("Token revocado");
+        }
+        return jwt;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Authorities de una combinación de roles, armadas una sola vez por bitmask.
+ *
+ * of(mask) es un acceso a un array: todos los usuarios con los mismos roles comparten la
+ * misma lista inmutable (y sus nombres), sin partir strings ni armar colecciones por request.
+ */
+public final class RoleAuthorities extends AbstractList<GrantedAuthority> implements RandomAccess {
+
+    private static final RoleAuthorities[] BY_MASK = new RoleAuthorities[Role.ALL + 1];
+
+    static {
+        for (int mask = 0; mask <= Role.ALL; mask++) {
+            BY_MASK[mask] = new RoleAuthorities(mask);
+        }
+    }
+
+    private final int mask;
+    private final GrantedAuthority[] authorities;
+    private final List<String> names;
+    private final int hashCode;
+
+    private RoleAuthorities(int mask) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Role role : Role.values()) {
+            if (role.isIn(mask)) {
+                authorities.add(role.authority());
+            }
+        }
+        this.mask = mask;
+        this.authorities = authorities.toArray(GrantedAuthority[]::new);
+        this.names = authorities.stream().map(GrantedAuthority::getAuthority).toList();
+        this.hashCode = super.hashCode();
+    }
+
+    public static RoleAuthorities of(int mask) {
+        return BY_MASK[mask & Role.ALL];
+    }
+
+    /**
+     * Nombres de las authorities; sin copiar nada si la colección es una RoleAuthorities
+     */
+    public static List<String> names(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities instanceof RoleAuthorities roleAuthorities) {
+            return roleAuthorities.names;
+        }
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    @Override
+    public GrantedAuthority get(int index) {
+        return authorities[index];
+    }
+
+    @Override
+    public int size() {
+        return authorities.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (!(o instanceof RoleAuthorities) && super.equals(o));
+    }
+}
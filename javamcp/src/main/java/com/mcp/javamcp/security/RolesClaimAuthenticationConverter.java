@@ -0,0 +1,118 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.model.Role;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorities del claim "roles" (el que escribe TokenService), sin ir a la BD.
+ *
+ * Las colecciones se arman una vez por lista de roles distinta y se reusan: los roles
+ * conocidos (ROLE_ADMIN, ROLE_USER) resuelven a las RoleAuthorities compartidas. Con scope/scp
+ * (tokens de JwtEncoder con claims arbitrarios) se agregan los SCOPE_ como el converter por defecto.
+ */
+public class RolesClaimAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    public static final String ROLES_CLAIM = "roles";
+
+    private static final int MAX_ROLE_SETS = 1024;
+
+    private final Map<List<?>, List<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+    private final JwtGrantedAuthoritiesConverter scopesConverter = new JwtGrantedAuthoritiesConverter();
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        List<GrantedAuthority> authorities = authorities(jwt.getClaim(ROLES_CLAIM));
+        if (jwt.hasClaim("scope") || jwt.hasClaim("scp")) {
+            List<GrantedAuthority> merged = new ArrayList<>(authorities);
+            merged.addAll(scopesConverter.convert(jwt));
+            authorities = merged;
+        }
+        return new RolesJwtAuthenticationToken(jwt, authorities);
+    }
+
+    private List<GrantedAuthority> authorities(Object claim) {
+        if (!(claim instanceof List<?> roles) || roles.isEmpty()) {
+            return RoleAuthorities.of(0);
+        }
+
+        List<GrantedAuthority> cached = authoritiesByRoles.get(roles);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<String> names = roles.stream().map(Objects::toString).toList();
+        List<GrantedAuthority> authorities = build(names);
+        // Las combinaciones de roles son pocas; el tope evita crecer sin límite con claims raros
+        if (authoritiesByRoles.size() < MAX_ROLE_SETS) {
+            authoritiesByRoles.putIfAbsent(names, authorities);
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> build(List<String> names) {
+        int mask = 0;
+        for (String name : names) {
+            Role role = role(name);
+            if (role == null) {
+                return names.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+            }
+            mask |= role.bit();
+        }
+        RoleAuthorities roleAuthorities = RoleAuthorities.of(mask);
+        // Nombres repetidos o en otro orden: se mantiene la lista del claim tal cual
+        return roleAuthorities.names().equals(names) ? roleAuthorities
+                : names.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+    }
+
+    private static Role role(String authority) {
+        for (Role role : Role.values()) {
+            if (role.authority().getAuthority().equals(authority)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * JwtAuthenticationToken que devuelve la colección cacheada en vez de la copia que hace
+     * AbstractAuthenticationToken en el constructor
+     */
+    static final class RolesJwtAuthenticationToken extends JwtAuthenticationToken {
+
+        private final List<GrantedAuthority> authorities;
+
+        RolesJwtAuthenticationToken(Jwt jwt, List<GrantedAuthority> authorities) {
+            super(jwt, null, jwt.getSubject());
+            this.authorities = authorities;
+        }
+
+        @Override
+        public Collection<GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof RolesJwtAuthenticationToken other
+                    && super.equals(other) && authorities.equals(other.authorities);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * super.hashCode() + authorities.hashCode();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mcp.javamcp.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * JwtDecoder que verifica con el verifier ya construido de la clave del kid (RS256, ES256 o EdDSA).
+ * Tokens sin kid se verifican con la clave activa.
+ * Mismas validaciones y conversión de claims que NimbusJwtDecoder (exp/nbf, fechas a Instant).
+ * Los errores son BadJwtException para que el resource server responda 401.
+ */
+public class SigningKeyJwtDecoder implements JwtDecoder {
+
+    private final JwtKeyManager keyManager;
+    private final Converter<Map<String, Object>, Map<String, Object>> claimSetConverter =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+    private final OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefault();
+
+    public SigningKeyJwtDecoder(JwtKeyManager keyManager) {
+        this.keyManager = keyManager;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        SignedJWT signedJwt = parse(token);
+        JWSHeader header = signedJwt.getHeader();
+
+        JwtSigningKey signingKey = header.getKeyID() != null
+                ? keyManager.find(header.getKeyID())
+                : keyManager.active();
+        if (signingKey == null) {
+            throw new BadJwtException("kid desconocido: " + header.getKeyID());
+        }
+        if (!signingKey.algorithm().equals(header.getAlgorithm())) {
+            throw new BadJwtException("Algoritmo no aceptado: " + header.getAlgorithm());
+        }
+        verify(signedJwt, signingKey);
+
+        Jwt jwt = Jwt.withTokenValue(token)
+                .headers(h -> h.putAll(header.toJSONObject()))
+                .claims(c -> c.putAll(claimSetConverter.convert(claims(signedJwt))))
+                .build();
+
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        if (result.hasErrors()) {
+            String description = result.getErrors().iterator().next().getDescription();
+            throw new JwtValidationException("JWT inválido: " + description, result.getErrors());
+        }
+        return jwt;
+    }
+
+    private static SignedJWT parse(String token) {
+        try {
+            return SignedJWT.parse(token);
+        } catch (ParseException e) {
+            throw new BadJwtException("JWT mal formado: " + e.getMessage(), e);
+        }
+    }
+
+    private static void verify(SignedJWT signedJwt, JwtSigningKey signingKey) {
+        try {
+            if (!signedJwt.verify(signingKey.verifier())) {
+                throw new BadJwtException("Firma del JWT inválida");
+            }
+        } catch (JOSEException e) {
+            throw new BadJwtException("No se pudo verificar la firma: " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Object> claims(SignedJWT signedJwt) {
+        try {
+            return signedJwt.getJWTClaimsSet().getClaims();
+        } catch (ParseException e) {
+            throw new BadJwtException("Claims del JWT mal formados: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mcp.javamcp.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+
+import java.net.URL;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JwtEncoder para claims arbitrarios firmado con la clave activa, sea cual sea su algoritmo.
+ * NimbusJwtEncoder asume RS256 cuando no se pasa header; acá el header lo define la clave.
+ * Si los claims no traen jti se agrega uno, para que cualquier token se pueda revocar.
+ */
+public class SigningKeyJwtEncoder implements JwtEncoder {
+
+    private final JwtKeyManager keyManager;
+
+    public SigningKeyJwtEncoder(JwtKeyManager keyManager) {
+        this.keyManager = keyManager;
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        JwtSigningKey signingKey = keyManager.active();
+        JWSHeader header = new JWSHeader.Builder(signingKey.algorithm())
+                .keyID(signingKey.keyId())
+                .build();
+
+        JwsHeader requested = parameters.getJwsHeader();
+        if (requested != null && !signingKey.algorithm().getName().equals(requested.getAlgorithm().getName())) {
+            throw new JwtEncodingException("Algoritmo " + requested.getAlgorithm().getName()
+                    + " pedido, la clave activa firma con " + signingKey.algorithm());
+        }
+
+        Map<String, Object> claims = new LinkedHashMap<>(parameters.getClaims().getClaims());
+        claims.putIfAbsent(JwtClaimNames.JTI, TokenIds.next());
+        try {
+            SignedJWT jwt = new SignedJWT(header, toNimbusClaims(claims));
+            jwt.sign(signingKey.signer());
+
+            return Jwt.withTokenValue(jwt.serialize())
+                    .headers(h -> h.putAll(header.toJSONObject()))
+                    .claims(c -> c.putAll(claims))
+                    .build();
+        } catch (JOSEException e) {
+            throw new JwtEncodingException("Error firmando el JWT: " + e.getMessage(), e);
+        }
+    }
+
+    private static JWTClaimsSet toNimbusClaims(Map<String, Object> claims) {
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        claims.forEach((name, value) -> {
+            if (value instanceof Instant instant) {
+                value = Date.from(instant);
+            } else if (value instanceof URL url) {
+                value = url.toExternalForm();
+            }
+            builder.claim(name, value);
+        });
+        return builder.build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.mcp.javamcp.security;
+
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generador de jti: 128 bits aleatorios en base64url (22 caracteres).
+ * No necesita ser impredecible, solo único; ThreadLocalRandom evita la contención de SecureRandom.
+ */
+public final class TokenIds {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private TokenIds() {
+    }
+
+    public static String next() {
+        byte[] bytes = new byte[16];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return BASE64URL.encodeToString(bytes);
+    }
+}
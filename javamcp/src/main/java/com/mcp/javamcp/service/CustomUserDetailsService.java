@@ -1,40 +1,129 @@
 package com.mcp.javamcp.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcp.javamcp.metrics.AuthMetrics;
 import com.mcp.javamcp.repository.UserRepository;
+import com.mcp.javamcp.security.AccountUserDetails;
+import com.mcp.javamcp.security.RoleAuthorities;
+import com.mcp.javamcp.utils.LogFields;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository repo;
 
-    public CustomUserDetailsService(UserRepository repo) {
+    /**
+     * Cache local de cuentas (incluye "no existe" para cortar el credential stuffing contra la BD).
+     * Guarda un snapshot inmutable y no el UserDetails: Spring borra la contraseña del
+     * UserDetails después de autenticar (eraseCredentials), así que se arma uno nuevo por llamada
+     * (barato: las authorities son la lista compartida de RoleAuthorities).
+     */
+    private final Cache<String, CachedAccount> cache;
+
+    private final Timer lookupFound;
+    private final Timer lookupNotFound;
+
+    public CustomUserDetailsService(
+            UserRepository repo,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.security.user-cache.ttl:30s}") Duration ttl) {
         this.repo = repo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+
+        this.lookupFound = lookupTimer(meterRegistry, "found");
+        this.lookupNotFound = lookupTimer(meterRegistry, "not_found");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        System.out.println("=== BUSCANDO USUARIO EN BD: " + username + " ===");
-
-        return repo.findByUsername(username)
-                .map(u -> {
-                    System.out.println("Usuario encontrado: " + u.getUsername());
-                    System.out.println("Contraseña en BD: " + u.getPassword());
-                    System.out.println("Roles: " + u.getRoles());
-
-                    return User.builder()
-                            .username(u.getUsername())
-                            .password(u.getPassword()) // Debe estar codificada en BCrypt
-                            .roles(u.getRoles().split(","))
-                            .build();
-                })
-                .orElseThrow(() -> {
-                    System.out.println("Usuario NO encontrado: " + username);
-                    return new UsernameNotFoundException("Usuario no encontrado: " + username);
-                });
+        CachedAccount account = cache.get(username, this::loadAccount);
+
+        if (account.isMissing()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Usuario no encontrado {}", LogFields.usernameHash(username));
+            }
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+
+        return new AccountUserDetails(account.username(), account.password(), account.authorities());
+    }
+
+    /**
+     * Saca al usuario del cache; llamar después de crear, modificar o borrar la cuenta
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Re-hash transparente: DaoAuthenticationProvider lo llama después de un login exitoso
+     * cuando el hash guardado usa un algoritmo o costo viejo
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        repo.updatePassword(user.getUsername(), newPassword);
+        evict(user.getUsername());
+        log.info("Hash de contraseña actualizado {}", LogFields.usernameHash(user.getUsername()));
+
+        if (user instanceof AccountUserDetails account) {
+            return new AccountUserDetails(account.getUsername(), newPassword, account.getAuthorities());
+        }
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    private CachedAccount loadAccount(String username) {
+        if (log.isDebugEnabled()) {
+            log.debug("Buscando usuario en BD {}", LogFields.usernameHash(username));
+        }
+
+        long start = System.nanoTime();
+        CachedAccount account = repo.findByUsername(username)
+                .map(u -> new CachedAccount(u.getUsername(), u.getPassword(), RoleAuthorities.of(u.getRoleMask())))
+                .orElseGet(() -> CachedAccount.missing(username));
+        (account.isMissing() ? lookupNotFound : lookupFound).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return account;
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(AuthMetrics.USER_LOOKUP)
+                .description("UserRepository.findByUsername (solo los misses del cache)")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    private record CachedAccount(String username, String password, RoleAuthorities authorities) {
+
+        static CachedAccount missing(String username) {
+            return new CachedAccount(username, null, null);
+        }
+
+        boolean isMissing() {
+            return password == null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,265 @@
+package com.mcp.javamcp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.utils.LogFields;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logins fallidos por username y bloqueo progresivo.
+ *
+ * Los fallos se cuentan en memoria con una ventana deslizante (ventana actual + la anterior
+ * ponderada). Desde threshold fallos cada fallo bloquea el usuario base-delay × 2^(fallos - threshold),
+ * hasta max-delay; mientras dura el bloqueo el login responde 429 sin llamar al AuthenticationManager.
+ *
+ * Solo los bloqueos se guardan en login_lockouts, en batch cada persist-interval (no hay una
+ * escritura por intento), y se cargan al arrancar. Cada nodo cuenta sus propios fallos.
+ * La clave es el hash corto del username en minúsculas: no quedan en la BD los usernames probados.
+ */
+@Slf4j
+@Service
+public class LoginFailureTracker {
+
+    private static final String UPSERT_SQL = "INSERT INTO login_lockouts (username_hash, failures, locked_until, updated_at) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (username_hash) DO UPDATE " +
+            "SET failures = EXCLUDED.failures, locked_until = EXCLUDED.locked_until, updated_at = EXCLUDED.updated_at";
+    private static final String DELETE_SQL = "DELETE FROM login_lockouts WHERE username_hash = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int threshold;
+    private final long windowMillis;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Cache<String, Failures> failures;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Counter lockouts;
+    private final Counter rejected;
+
+    @Autowired
+    public LoginFailureTracker(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.login-lockout.threshold:5}") int threshold,
+            @Value("${app.security.login-lockout.window:15m}") Duration window,
+            @Value("${app.security.login-lockout.base-delay:5s}") Duration baseDelay,
+            @Value("${app.security.login-lockout.max-delay:15m}") Duration maxDelay,
+            @Value("${app.security.login-lockout.maximum-size:100000}") long maximumSize) {
+        this(jdbcTemplate, meterRegistry, threshold, window, baseDelay, maxDelay, maximumSize, Clock.systemUTC());
+    }
+
+    LoginFailureTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, int threshold, Duration window,
+                        Duration baseDelay, Duration maxDelay, long maximumSize, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.threshold = threshold;
+        this.windowMillis = window.toMillis();
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        // Acotado: un barrido de usernames inventados desaloja los más viejos, no crece sin límite
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(window.plus(maxDelay))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, failures, "loginFailures");
+
+        this.lockouts = lockoutCounter(meterRegistry, "locked");
+        this.rejected = lockoutCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Cuánto falta para que el usuario pueda volver a intentar; cero si no está bloqueado
+     */
+    public Duration lockoutRemaining(String username) {
+        Failures state = failures.getIfPresent(key(username));
+        if (state == null) {
+            return Duration.ZERO;
+        }
+        long remaining = state.lockedUntil() - clock.millis();
+        if (remaining <= 0) {
+            return Duration.ZERO;
+        }
+        rejected.increment();
+        return Duration.ofMillis(remaining);
+    }
+
+    public void recordFailure(String username) {
+        String key = key(username);
+        long now = clock.millis();
+        Failures state = failures.get(key, k -> new Failures(now));
+        if (state.fail(now, windowMillis, threshold, baseDelayMillis, maxDelayMillis)) {
+            lockouts.increment();
+            dirty.add(key);
+            log.atWarn()
+                    .setMessage("Login bloqueado por fallos repetidos")
+                    .addKeyValue(LogFields.USERNAME_HASH, key)
+                    .addKeyValue(LogFields.OUTCOME, "locked")
+                    .log();
+        }
+    }
+
+    /**
+     * Login correcto: olvida los fallos (y el bloqueo guardado, si lo había)
+     */
+    public void recordSuccess(String username) {
+        String key = key(username);
+        Failures state = failures.getIfPresent(key);
+        if (state != null) {
+            failures.invalidate(key);
+            if (state.lockedUntil() > 0) {
+                dirty.add(key);
+            }
+        }
+    }
+
+    /**
+     * Bloqueos vigentes de la corrida anterior; los vencidos se borran
+     */
+    @PostConstruct
+    public void load() {
+        Timestamp now = Timestamp.from(clock.instant());
+        jdbcTemplate.update("DELETE FROM login_lockouts WHERE locked_until <= ?", now);
+        jdbcTemplate.query("SELECT username_hash, failures, locked_until FROM login_lockouts", rs -> {
+            failures.put(rs.getString(1), Failures.restored(clock.millis(),
+                    rs.getInt(2), rs.getTimestamp(3).toInstant().toEpochMilli()));
+        });
+        log.info("Bloqueos de login cargados: {}", failures.estimatedSize());
+    }
+
+    /**
+     * Escribe los bloqueos que cambiaron desde el último flush: upsert de los vigentes, delete del resto
+     */
+    @Scheduled(initialDelayString = "${app.security.login-lockout.persist-interval:10s}",
+            fixedDelayString = "${app.security.login-lockout.persist-interval:10s}")
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        long now = clock.millis();
+        Timestamp updatedAt = new Timestamp(now);
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (String key : dirty) {
+            dirty.remove(key);
+            keys.add(key);
+            Failures state = failures.getIfPresent(key);
+            if (state != null && state.lockedUntil() > now) {
+                upserts.add(new Object[]{key, state.failures(), new Timestamp(state.lockedUntil()), updatedAt});
+            } else {
+                deletes.add(new Object[]{key});
+            }
+        }
+
+        try {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+            }
+        } catch (RuntimeException e) {
+            dirty.addAll(keys);
+            log.warn("No se pudieron guardar los bloqueos de login ({} usuarios), se reintenta", keys.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static String key(String username) {
+        return LogFields.usernameHash(username.strip().toLowerCase(Locale.ROOT));
+    }
+
+    private static Counter lockoutCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(AuthMetrics.LOGIN_LOCKOUT)
+                .description("Bloqueos de login por fallos repetidos y logins rechazados por bloqueo")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ventana deslizante de fallos de un username; se sincroniza por instancia
+     */
+    private static final class Failures {
+
+        private long windowStart;
+        private int current;
+        private int previous;
+        private long lockedUntil;
+
+        Failures(long now) {
+            this.windowStart = now;
+        }
+
+        static Failures restored(long now, int failures, long lockedUntil) {
+            Failures state = new Failures(now);
+            state.current = failures;
+            state.lockedUntil = lockedUntil;
+            return state;
+        }
+
+        /**
+         * Suma un fallo; true si dejó al usuario bloqueado
+         */
+        synchronized boolean fail(long now, long window, int threshold, long baseDelay, long maxDelay) {
+            long elapsed = now - windowStart;
+            if (elapsed >= 2 * window) {
+                previous = 0;
+                current = 0;
+                windowStart = now;
+                elapsed = 0;
+            } else if (elapsed >= window) {
+                previous = current;
+                current = 0;
+                windowStart += window;
+                elapsed -= window;
+            }
+            current++;
+
+            // Fallos de la ventana anterior pesan según cuánto de ella sigue dentro de la ventana deslizante
+            int count = current + (int) (previous * (window - elapsed) / window);
+            if (count < threshold) {
+                return false;
+            }
+            int doublings = Math.min(count - threshold, 30);
+            lockedUntil = now + Math.min(baseDelay << doublings, maxDelay);
+            return true;
+        }
+
+        synchronized int failures() {
+            return current + previous;
+        }
+
+        synchronized long lockedUntil() {
+            return lockedUntil;
+        }
+    }
+}
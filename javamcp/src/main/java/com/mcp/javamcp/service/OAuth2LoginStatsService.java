@@ -0,0 +1,183 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.metrics.AuthMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Estadísticas de login OAuth2 (login_count, last_login) con write-behind.
+ *
+ * /oauth2/success solo suma en memoria; cada flush-interval los acumulados se escriben con
+ * un UPDATE por usuario en batch JDBC (login_count = login_count + ?). Un usuario que entra
+ * cien veces entre dos flush es un solo UPDATE, y no hay contención sobre las filas calientes.
+ *
+ * La fila la crea OAuth2UserProvisioningService en el mismo login (con login_count 0).
+ *
+ * Si se juntan max-pending usuarios sin escribir se adelanta el flush en segundo plano;
+ * pasado el doble se descartan los logins de usuarios nuevos (métrica outcome=dropped).
+ * Al apagar se escribe lo pendiente.
+ */
+@Slf4j
+@Service
+public class OAuth2LoginStatsService {
+
+    private static final String UPDATE_SQL = "UPDATE oauth2_users " +
+            "SET login_count = COALESCE(login_count, 0) + ?, last_login = GREATEST(last_login, ?) " +
+            "WHERE provider = ? AND provider_id = ?";
+
+    private static final Comparator<Map.Entry<LoginKey, Delta>> LOCK_ORDER = Comparator
+            .comparing((Map.Entry<LoginKey, Delta> e) -> e.getKey().provider())
+            .thenComparing(e -> e.getKey().providerId());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPending;
+    private final int batchSize;
+    private final Map<LoginKey, Delta> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService overflowFlusher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("oauth2-login-stats-flush").daemon().factory());
+
+    private final Timer flushTimer;
+    private final Counter flushed;
+    private final Counter unknownUser;
+    private final Counter dropped;
+
+    public OAuth2LoginStatsService(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.oauth2-login-stats.max-pending:10000}") int maxPending,
+            @Value("${app.security.oauth2-login-stats.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+
+        Gauge.builder(AuthMetrics.LOGIN_STATS_PENDING, pending, Map::size)
+                .description("Usuarios OAuth2 con estadísticas de login sin escribir")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(AuthMetrics.LOGIN_STATS_FLUSH)
+                .description("Escritura en batch de las estadísticas de login OAuth2")
+                .register(meterRegistry);
+        this.flushed = statsCounter(meterRegistry, "flushed");
+        this.unknownUser = statsCounter(meterRegistry, "unknown_user");
+        this.dropped = statsCounter(meterRegistry, "dropped");
+    }
+
+    /**
+     * Registra un login; no toca la BD
+     */
+    public void recordLogin(String provider, String providerId, LocalDateTime loginAt) {
+        LoginKey key = new LoginKey(provider, providerId);
+        int size = pending.size();
+
+        if (size >= 2 * maxPending && !pending.containsKey(key)) {
+            dropped.increment();
+            requestFlush();
+            return;
+        }
+        pending.merge(key, new Delta(1, loginAt), Delta::plus);
+
+        if (size + 1 >= maxPending) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Escribe lo acumulado; si la BD falla, los acumulados vuelven al buffer para el próximo intento
+     */
+    @Scheduled(initialDelayString = "${app.security.oauth2-login-stats.flush-interval:10s}",
+            fixedDelayString = "${app.security.oauth2-login-stats.flush-interval:10s}")
+    public synchronized void flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // remove() es atómico: un login concurrente cae en una entrada nueva y no se pierde
+        List<Map.Entry<LoginKey, Delta>> batch = new ArrayList<>(pending.size());
+        for (LoginKey key : pending.keySet()) {
+            Delta delta = pending.remove(key);
+            if (delta != null) {
+                batch.add(Map.entry(key, delta));
+            }
+        }
+        // Mismo orden de filas en todos los nodos: dos flush concurrentes no se bloquean mutuamente
+        batch.sort(LOCK_ORDER);
+
+        long start = System.nanoTime();
+        try {
+            int[][] results = jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batchSize, (ps, entry) -> {
+                ps.setInt(1, entry.getValue().logins());
+                ps.setTimestamp(2, Timestamp.valueOf(entry.getValue().lastLogin()));
+                ps.setString(3, entry.getKey().provider());
+                ps.setString(4, entry.getKey().providerId());
+            });
+
+            int missing = 0;
+            for (int[] chunk : results) {
+                for (int updated : chunk) {
+                    if (updated == 0) {
+                        missing++;
+                    }
+                }
+            }
+            flushed.increment(batch.size() - missing);
+            unknownUser.increment(missing);
+        } catch (RuntimeException e) {
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Delta::plus));
+            log.warn("No se pudieron escribir las estadísticas de login ({} usuarios), se reintenta", batch.size(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        overflowFlusher.shutdown();
+        overflowFlusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true) && !overflowFlusher.isShutdown()) {
+            overflowFlusher.execute(this::flush);
+        }
+    }
+
+    private static Counter statsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(AuthMetrics.LOGIN_STATS)
+                .description("Usuarios OAuth2 con estadísticas de login escritas, descartadas o sin fila")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    private record LoginKey(String provider, String providerId) {
+    }
+
+    private record Delta(int logins, LocalDateTime lastLogin) {
+
+        Delta plus(Delta other) {
+            return new Delta(logins + other.logins,
+                    lastLogin.isAfter(other.lastLogin) ? lastLogin : other.lastLogin);
+        }
+    }
+}
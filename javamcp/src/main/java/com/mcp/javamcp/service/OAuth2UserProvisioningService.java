@@ -0,0 +1,83 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.model.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Alta / actualización del usuario OAuth2 en cada login social.
+ *
+ * Un solo INSERT ... ON CONFLICT (provider, provider_id) DO UPDATE: primer login y los
+ * siguientes cuestan un round-trip, y dos primeros logins concurrentes no pueden duplicar
+ * la fila (el unique constraint decide). Si email, nombre y foto no cambiaron no se escribe
+ * la fila. login_count / last_login los lleva OAuth2LoginStatsService en batch.
+ *
+ * El id no sale del DEFAULT: Postgres evalúa el DEFAULT nextval(...) antes de detectar el
+ * conflicto, así cada login repetido gastaba un bloque de la secuencia (INCREMENT BY 50).
+ * Si la fila existe se reusa su id (COALESCE solo llama a nextval cuando no hay fila).
+ */
+@Service
+public class OAuth2UserProvisioningService {
+
+    private static final String UPSERT_SQL = "INSERT INTO oauth2_users " +
+            "(id, email, name, picture, provider, provider_id, first_login, last_login, login_count, role_mask) " +
+            "VALUES (COALESCE((SELECT id FROM oauth2_users WHERE provider = ? AND provider_id = ?), " +
+            "nextval('oauth2_users_seq')), ?, ?, ?, ?, ?, ?, ?, 0, " + Role.USER.bit() + ") " +
+            "ON CONFLICT (provider, provider_id) DO UPDATE " +
+            "SET email = EXCLUDED.email, name = EXCLUDED.name, picture = EXCLUDED.picture " +
+            "WHERE (oauth2_users.email, oauth2_users.name, oauth2_users.picture) " +
+            "IS DISTINCT FROM (EXCLUDED.email, EXCLUDED.name, EXCLUDED.picture) " +
+            // xmax = 0 solo en una fila recién insertada
+            "RETURNING (xmax = 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter created;
+    private final Counter updated;
+    private final Counter unchanged;
+
+    public OAuth2UserProvisioningService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.created = provisionCounter(meterRegistry, "created");
+        this.updated = provisionCounter(meterRegistry, "updated");
+        this.unchanged = provisionCounter(meterRegistry, "unchanged");
+    }
+
+    /**
+     * Crea el usuario si no existe o actualiza su perfil
+     */
+    public Outcome provision(String provider, String providerId, String email, String name, String picture,
+                             LocalDateTime loginAt) {
+        Timestamp now = Timestamp.valueOf(loginAt);
+        List<Boolean> inserted = jdbcTemplate.queryForList(UPSERT_SQL, Boolean.class,
+                provider, providerId, email, name, picture, provider, providerId, now, now);
+
+        if (inserted.isEmpty()) {
+            unchanged.increment();
+            return Outcome.UNCHANGED;
+        }
+        if (inserted.get(0)) {
+            created.increment();
+            return Outcome.CREATED;
+        }
+        updated.increment();
+        return Outcome.UPDATED;
+    }
+
+    private static Counter provisionCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(AuthMetrics.OAUTH2_PROVISION)
+                .description("Upserts de usuarios OAuth2 en el login social")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    public enum Outcome {
+        CREATED, UPDATED, UNCHANGED
+    }
+}
@@ -0,0 +1,170 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.model.RefreshToken;
+import com.mcp.javamcp.repository.RefreshTokenRepository;
+import com.mcp.javamcp.security.InvalidRefreshTokenException;
+import com.mcp.javamcp.utils.LogFields;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos y rotativos.
+ *
+ * Cada uso entrega un token nuevo de la misma familia y marca el anterior como usado.
+ * Presentar un token ya usado significa que alguien más lo tiene: se revoca la familia
+ * completa y los dos (legítimo y atacante) tienen que volver a loguearse.
+ * Renovar el access token no pasa por BCrypt, solo un SHA-256 y dos queries indexadas.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository repository;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+    private final int purgeBatchSize;
+
+    private final Counter rotated;
+    private final Counter invalid;
+    private final Counter expired;
+    private final Counter reused;
+
+    public RefreshTokenService(
+            RefreshTokenRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.refresh-token.ttl:14d}") Duration ttl,
+            @Value("${app.security.refresh-token.purge-batch-size:1000}") int purgeBatchSize) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.purgeBatchSize = purgeBatchSize;
+        this.rotated = refreshCounter(meterRegistry, "success");
+        this.invalid = refreshCounter(meterRegistry, "invalid");
+        this.expired = refreshCounter(meterRegistry, "expired");
+        this.reused = refreshCounter(meterRegistry, "reuse_detected");
+    }
+
+    /**
+     * Primer refresh token de un login (familia nueva)
+     */
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID(), Instant.now());
+    }
+
+    /**
+     * Consume el refresh token y devuelve uno nuevo de la misma familia
+     */
+    public Rotation rotate(String refreshToken) {
+        Instant now = Instant.now();
+        RefreshToken current = repository.findByTokenHash(hash(refreshToken)).orElse(null);
+
+        if (current == null) {
+            invalid.increment();
+            throw new InvalidRefreshTokenException("Refresh token desconocido");
+        }
+        if (!current.getExpiresAt().isAfter(now)) {
+            expired.increment();
+            throw new InvalidRefreshTokenException("Refresh token vencido");
+        }
+        // Update condicional: de dos requests con el mismo token solo una lo marca
+        if (current.getUsedAt() != null || repository.markUsed(current.getId(), now) == 0) {
+            reused.increment();
+            int revoked = repository.deleteByFamily(current.getFamilyId());
+            log.atWarn()
+                    .setMessage("Refresh token reutilizado, familia revocada")
+                    .addKeyValue(LogFields.USERNAME_HASH, LogFields.usernameHash(current.getUsername()))
+                    .addKeyValue("revoked_tokens", revoked)
+                    .log();
+            throw new InvalidRefreshTokenException("Refresh token reutilizado");
+        }
+
+        rotated.increment();
+        return new Rotation(current.getUsername(), issue(current.getUsername(), current.getFamilyId(), now));
+    }
+
+    /**
+     * Revoca la familia del refresh token (logout); un token desconocido se ignora
+     */
+    public void revoke(String refreshToken) {
+        repository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> repository.deleteByFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Revoca todas las sesiones de refresh del usuario
+     */
+    public void revokeAll(String username) {
+        repository.deleteByUsername(username);
+    }
+
+    /**
+     * Borra los tokens vencidos de a purge-batch-size filas (cada lote en su propia transacción)
+     */
+    @Scheduled(initialDelayString = "${app.security.refresh-token.purge-interval:1h}",
+            fixedDelayString = "${app.security.refresh-token.purge-interval:1h}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteExpiredBatch(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        if (total > 0) {
+            log.info("Refresh tokens vencidos borrados: {}", total);
+        }
+    }
+
+    private String issue(String username, UUID familyId, Instant now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = BASE64URL.encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUsername(username);
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setExpiresAt(now.plus(ttl));
+        repository.save(refreshToken);
+
+        return token;
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(AuthMetrics.REFRESH)
+                .description("Renovaciones de access token con refresh token")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resultado de una rotación: de quién es y el refresh token nuevo
+     */
+    public record Rotation(String username, String refreshToken) {
+    }
+}
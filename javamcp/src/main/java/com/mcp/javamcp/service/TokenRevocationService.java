@@ -0,0 +1,208 @@
+package com.mcp.javamcp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.model.RevokedToken;
+import com.mcp.javamcp.repository.RevokedTokenRepository;
+import com.mcp.javamcp.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lista de revocación de access tokens.
+ *
+ * Se revoca un token puntual (por jti, en el logout) o todos los de un usuario emitidos
+ * hasta ahora (cambio de contraseña, baja de cuenta). Cada request autenticado consulta
+ * primero un Bloom filter en memoria: si dice que no, el token no está revocado y no se
+ * toca la BD. Solo los posibles aciertos van a la tabla (y ese resultado se cachea unos segundos).
+ *
+ * El filtro se completa de forma incremental cada poll-interval con lo revocado en otros
+ * nodos, y cada rebuild-interval se arma de nuevo solo con lo vigente (un Bloom filter no
+ * permite borrar, así los tokens vencidos dejan de ocupar lugar).
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    static final String JTI_PREFIX = "jti:";
+    static final String SUBJECT_PREFIX = "sub:";
+
+    // Margen para no perder filas guardadas justo mientras corría el poll anterior
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(2);
+
+    private final RevokedTokenRepository repository;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final int purgeBatchSize;
+    private final Cache<String, Optional<Instant>> exactChecks;
+
+    private final Counter clear;
+    private final Counter falsePositive;
+    private final Counter revoked;
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastPoll = Instant.EPOCH;
+
+    public TokenRevocationService(
+            RevokedTokenRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.revocation.expected-entries:100000}") long expectedEntries,
+            @Value("${app.security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${app.security.revocation.exact-check-ttl:5s}") Duration exactCheckTtl,
+            @Value("${app.security.revocation.purge-batch-size:1000}") int purgeBatchSize) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.purgeBatchSize = purgeBatchSize;
+        this.filter = BloomFilter.create(expectedEntries, falsePositiveRate);
+        this.exactChecks = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(exactCheckTtl)
+                .build();
+
+        this.clear = checkCounter(meterRegistry, "clear");
+        this.falsePositive = checkCounter(meterRegistry, "false_positive");
+        this.revoked = checkCounter(meterRegistry, "revoked");
+    }
+
+    /**
+     * Revoca un token puntual; la fila se puede borrar cuando el token vence
+     */
+    public void revokeToken(String jti, Instant expiresAt) {
+        if (jti == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        save(JTI_PREFIX + jti, now, expiresAt != null ? expiresAt : now.plus(TokenService.ACCESS_TOKEN_TTL));
+    }
+
+    /**
+     * Revoca todos los tokens del usuario emitidos hasta ahora.
+     *
+     * iat tiene resolución de segundos: el corte es el segundo siguiente y se revoca lo que tenga
+     * iat anterior al corte. Antes de volver se espera a que llegue ese segundo (menos de 1s, solo
+     * en cambio de contraseña y baja de cuenta), así un token emitido después de revocar ya
+     * tiene iat >= corte y sigue valiendo.
+     */
+    public void revokeAllFor(String subject) {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        save(SUBJECT_PREFIX + subject, cutoff, cutoff.plus(TokenService.ACCESS_TOKEN_TTL));
+        awaitCutoff(cutoff);
+    }
+
+    /**
+     * true si el token (ya verificado) fue revocado por jti o por usuario
+     */
+    public boolean isRevoked(Jwt jwt) {
+        BloomFilter current = filter;
+        String jti = jwt.getId();
+        String subject = jwt.getSubject();
+        boolean jtiHit = jti != null && current.mightContain(JTI_PREFIX + jti);
+        boolean subjectHit = subject != null && current.mightContain(SUBJECT_PREFIX + subject);
+
+        if (!jtiHit && !subjectHit) {
+            clear.increment();
+            return false;
+        }
+
+        boolean isRevoked = (jtiHit && exactCheck(JTI_PREFIX + jti).isPresent())
+                || (subjectHit && exactCheck(SUBJECT_PREFIX + subject)
+                .filter(cutoff -> jwt.getIssuedAt() == null || jwt.getIssuedAt().isBefore(cutoff))
+                .isPresent());
+        (isRevoked ? revoked : falsePositive).increment();
+        return isRevoked;
+    }
+
+    /**
+     * Agrega al filtro lo revocado desde el último poll (en este u otros nodos)
+     */
+    @Scheduled(initialDelayString = "${app.security.revocation.poll-interval:5s}",
+            fixedDelayString = "${app.security.revocation.poll-interval:5s}")
+    public void poll() {
+        Instant now = Instant.now();
+        List<String> keys = repository.findKeysRevokedSince(lastPoll.minus(POLL_OVERLAP));
+        BloomFilter current = filter;
+        for (String key : keys) {
+            current.add(key);
+            exactChecks.invalidate(key);
+        }
+        lastPoll = now;
+    }
+
+    /**
+     * Borra las revocaciones vencidas y arma un filtro nuevo con las vigentes
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${app.security.revocation.rebuild-interval:1h}",
+            fixedDelayString = "${app.security.revocation.rebuild-interval:1h}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteExpiredBatch(now, purgeBatchSize);
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+
+        List<String> keys = repository.findActiveKeys(now);
+        BloomFilter next = BloomFilter.create(Math.max(expectedEntries, 2L * keys.size()), falsePositiveRate);
+        keys.forEach(next::add);
+        filter = next;
+
+        // Lo revocado mientras se leía la tabla quedó en el filtro viejo: releerlo sobre el nuevo
+        lastPoll = now;
+        poll();
+        exactChecks.invalidateAll();
+
+        log.info("Filtro de revocación reconstruido: {} entradas vigentes, {} vencidas borradas", keys.size(), purged);
+    }
+
+    private void save(String key, Instant revokedAt, Instant expiresAt) {
+        RevokedToken entry = repository.findByTokenKey(key).orElseGet(RevokedToken::new);
+        entry.setTokenKey(key);
+        entry.setRevokedAt(revokedAt);
+        if (entry.getExpiresAt() == null || entry.getExpiresAt().isBefore(expiresAt)) {
+            entry.setExpiresAt(expiresAt);
+        }
+        repository.save(entry);
+
+        filter.add(key);
+        exactChecks.invalidate(key);
+    }
+
+    private static void awaitCutoff(Instant cutoff) {
+        long remaining = Duration.between(Instant.now(), cutoff).toMillis() + 1;
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Optional<Instant> exactCheck(String key) {
+        return exactChecks.get(key, k -> repository.findByTokenKey(k).map(RevokedToken::getRevokedAt));
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(AuthMetrics.REVOCATION_CHECK)
+                .description("Chequeos de revocación de JWT (clear = descartado por el Bloom filter)")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,192 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.security.JwtKeyManager;
+import com.mcp.javamcp.security.JwtSigningKey;
+import com.mcp.javamcp.security.RoleAuthorities;
+import com.mcp.javamcp.security.TokenIds;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión de access tokens (JWT firmado).
+ *
+ * A diferencia de NimbusJwtEncoder, el header y el signer de la clave activa (RS256, ES256
+ * o EdDSA) se arman una sola vez, el fragmento JSON de "roles" se cachea por combinación de
+ * nombres de authorities y los claims se serializan directo a un StringBuilder. El costo queda
+ * dominado por la firma. Si la clave rota, el header se rearma en la primera emisión siguiente.
+ */
+@Service
+public class TokenService {
+
+    public static final Duration ACCESS_TOKEN_TTL = Duration.ofHours(1);
+    public static final String PROVIDER_CLAIM = "provider";
+    public static final String PROVIDER_ID_CLAIM = "provider_id";
+
+    private static final int MAX_ROLE_FRAGMENTS = 1024;
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtKeyManager keyManager;
+    private final String issuerFragment;
+    private final Map<List<String>, RoleFragment> roleFragments = new ConcurrentHashMap<>();
+    private final Timer timer;
+    private volatile SigningState signing;
+
+    public TokenService(
+            JwtKeyManager keyManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.jwt.issuer:http://localhost:8080}") String issuer) {
+        this.keyManager = keyManager;
+        this.signing = SigningState.of(keyManager.active());
+        this.issuerFragment = "{\"iss\":" + quote(issuer);
+        this.timer = Timer.builder(AuthMetrics.JWT_ENCODE)
+                .description("Emisión y firma de JWT")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Token del login con usuario/password: iss, sub, iat, exp, jti y roles
+     */
+    public IssuedToken issue(String subject, Collection<? extends GrantedAuthority> authorities) {
+        return issue(subject, authorities, null, null, null);
+    }
+
+    /**
+     * Token con claims opcionales de OAuth2 (provider, provider_id y email, se omiten si son null).
+     * provider + provider_id identifican la fila de oauth2_users (el email puede repetirse entre providers)
+     */
+    public IssuedToken issue(String subject, Collection<? extends GrantedAuthority> authorities,
+                             String provider, String providerId, String email) {
+        long start = System.nanoTime();
+        try {
+            long issuedAt = Instant.now().getEpochSecond();
+            long expiresAt = issuedAt + ACCESS_TOKEN_TTL.toSeconds();
+            RoleFragment roles = roleFragment(authorities);
+
+            StringBuilder claims = new StringBuilder(256)
+                    .append(issuerFragment)
+                    .append(",\"sub\":").append(quote(subject))
+                    .append(",\"iat\":").append(issuedAt)
+                    .append(",\"exp\":").append(expiresAt)
+                    .append(",\"jti\":\"").append(TokenIds.next()).append('"')
+                    .append(',').append(roles.json());
+            if (provider != null) {
+                claims.append(",\"provider\":").append(quote(provider));
+            }
+            if (providerId != null) {
+                claims.append(",\"provider_id\":").append(quote(providerId));
+            }
+            if (email != null) {
+                claims.append(",\"email\":").append(quote(email));
+            }
+            claims.append('}');
+
+            SigningState state = signingState();
+            String signingInput = state.encodedHeader() + '.'
+                    + BASE64URL.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8));
+            String signature = state.key().signer()
+                    .sign(state.header(), signingInput.getBytes(StandardCharsets.US_ASCII)).toString();
+
+            return new IssuedToken(signingInput + '.' + signature, roles.names(), (int) ACCESS_TOKEN_TTL.toSeconds());
+        } catch (JOSEException e) {
+            throw new JwtEncodingException("Error firmando el JWT: " + e.getMessage(), e);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private SigningState signingState() {
+        SigningState current = signing;
+        JwtSigningKey active = keyManager.active();
+        if (current.key() != active) {
+            current = SigningState.of(active);
+            signing = current;
+        }
+        return current;
+    }
+
+    private RoleFragment roleFragment(Collection<? extends GrantedAuthority> authorities) {
+        // La clave son solo los nombres ordenados: las authorities de OAuth2/OIDC incluyen el ID token
+        // y los atributos del usuario en equals/hashCode (una entrada por login, con datos personales)
+        List<String> names = authorities instanceof RoleAuthorities roleAuthorities
+                ? roleAuthorities.names() // ya vienen en orden alfabético (orden del enum Role)
+                : authorities.stream().map(GrantedAuthority::getAuthority).sorted().toList();
+        RoleFragment cached = roleFragments.get(names);
+        if (cached != null) {
+            return cached;
+        }
+
+        StringBuilder json = new StringBuilder("\"roles\":[");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(quote(names.get(i)));
+        }
+        RoleFragment fragment = new RoleFragment(names, json.append(']').toString());
+
+        // Las combinaciones de roles son pocas; el tope evita crecer sin límite con authorities raras
+        if (roleFragments.size() < MAX_ROLE_FRAGMENTS) {
+            RoleFragment previous = roleFragments.putIfAbsent(names, fragment);
+            return previous != null ? previous : fragment;
+        }
+        return fragment;
+    }
+
+    private static String quote(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private record RoleFragment(List<String> names, String json) {
+    }
+
+    private record SigningState(JwtSigningKey key, JWSHeader header, String encodedHeader) {
+
+        static SigningState of(JwtSigningKey key) {
+            JWSHeader header = new JWSHeader.Builder(key.algorithm())
+                    .keyID(key.keyId())
+                    .build();
+            return new SigningState(key, header, header.toBase64URL().toString());
+        }
+    }
+
+    /**
+     * Token emitido junto con los roles que lleva y su duración en segundos
+     */
+    public record IssuedToken(String tokenValue, List<String> roles, int expiresIn) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.mcp.javamcp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mcp.javamcp.dto.UserProfileDTO;
+import com.mcp.javamcp.repository.OAuth2UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación NDJSON (un usuario por línea) de oauth2_users.
+ * Lee con un cursor JDBC y escribe cada fila apenas llega: la memoria no depende del tamaño de la tabla.
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final OAuth2UserRepository repository;
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+
+    public UserExportService(OAuth2UserRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        // Un JSON por línea; el flush lo decide el loop y no cada writeValue
+        this.writer = objectMapper.writerFor(UserProfileDTO.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Escribe los usuarios que pasan los filtros (null = sin filtro) y devuelve cuántos fueron
+     */
+    @Transactional(readOnly = true)
+    public long exportProfiles(String provider, LocalDateTime lastLoginFrom, LocalDateTime lastLoginTo,
+                               OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<UserProfileDTO> profiles = repository.streamProfilesAfter(0, provider, lastLoginFrom, lastLoginTo);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            Iterator<UserProfileDTO> iterator = profiles.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                if (++count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+
+        log.info("Exportación de usuarios OAuth2: {} filas", count);
+        return count;
+    }
+}
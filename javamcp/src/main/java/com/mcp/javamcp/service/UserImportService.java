@@ -0,0 +1,342 @@
+package com.mcp.javamcp.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.javamcp.dto.UserImportRowDTO;
+import com.mcp.javamcp.model.Ids;
+import com.mcp.javamcp.model.Role;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Importación masiva de usuarios locales (migración desde otro sistema).
+ *
+ * Lee la entrada de a chunk-size filas sin cargarla entera. Por chunk: descarta inválidos y
+ * repetidos, busca los usernames que ya existen con una sola query (= ANY), hashea en
+ * paralelo solo los que quedan (o usa el passwordHash que viene) e inserta con un batch JDBC
+ * en una transacción, con ids tomados de users_seq de a bloques (igual que Hibernate, ver Ids). ON CONFLICT DO NOTHING cubre un registro concurrente del mismo username.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String EXISTING_SQL = "SELECT username FROM users WHERE username = ANY (?)";
+    private static final String INSERT_SQL = "INSERT INTO users (id, username, password, role_mask) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (username) DO NOTHING";
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval('users_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private final UsernameAvailabilityService usernameAvailabilityService;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool hashPool;
+    private final int chunkSize;
+
+    public UserImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PasswordEncoder passwordEncoder,
+            CustomUserDetailsService userDetailsService,
+            UsernameAvailabilityService usernameAvailabilityService,
+            ObjectMapper objectMapper,
+            @Value("${app.user-import.hash-threads:0}") int hashThreads,
+            @Value("${app.user-import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.usernameAvailabilityService = usernameAvailabilityService;
+        this.objectMapper = objectMapper;
+        this.hashPool = new ForkJoinPool(hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importa todo el stream; el progreso se loguea por chunk
+     */
+    public ImportResult importUsers(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        Counts counts = new Counts();
+
+        Iterator<UserImportRowDTO> rows = format == Format.NDJSON ? ndjsonRows(in) : csvRows(in);
+        List<UserImportRowDTO> chunk = new ArrayList<>(chunkSize);
+        try {
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, counts);
+                    chunk.clear();
+                    logProgress(counts, start);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, counts);
+        }
+
+        ImportResult result = counts.toResult(start);
+        log.info("Importación de usuarios terminada: {} leídas, {} importadas, {} existentes, {} repetidas, {} inválidas ({} filas/s)",
+                result.read(), result.imported(), result.alreadyExisting(), result.duplicatesInInput(),
+                result.invalid(), result.rowsPerSecond());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    private void importChunk(List<UserImportRowDTO> chunk, Counts counts) {
+        counts.read += chunk.size();
+
+        Map<String, UserImportRowDTO> candidates = new LinkedHashMap<>();
+        for (UserImportRowDTO row : chunk) {
+            if (!isValid(row)) {
+                counts.invalid++;
+            } else if (candidates.putIfAbsent(row.username(), row) != null) {
+                counts.duplicates++;
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = existingUsernames(candidates.keySet());
+        candidates.keySet().removeAll(existing);
+        counts.existing += existing.size();
+
+        // BCrypt/Argon2 en todos los cores, solo para las filas que se van a insertar
+        List<Object[]> inserts = hashPool.submit(() -> candidates.values().parallelStream()
+                .map(row -> new Object[]{
+                        row.username(),
+                        row.passwordHash() != null ? row.passwordHash() : passwordEncoder.encode(row.password()),
+                        row.roles() == null || row.roles().isBlank() ? Role.USER.bit() : Role.parseMask(row.roles())
+                })
+                .toList()).join();
+
+        int[][] results = transactionTemplate.execute(status -> {
+            long[] ids = allocateIds(inserts.size());
+            int[] next = {0};
+            return jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, args) -> {
+                ps.setLong(1, ids[next[0]++]);
+                ps.setString(2, (String) args[0]);
+                ps.setString(3, (String) args[1]);
+                ps.setInt(4, (Integer) args[2]);
+            });
+        });
+
+        int inserted = 0;
+        for (int[] batch : results) {
+            for (int updated : batch) {
+                // Con reWriteBatchedInserts el driver no informa filas por insert (SUCCESS_NO_INFO)
+                inserted += updated > 0 || updated == Statement.SUCCESS_NO_INFO ? 1 : 0;
+            }
+        }
+        counts.imported += inserted;
+        counts.existing += inserts.size() - inserted;
+
+        // Pueden estar cacheados como inexistentes
+        candidates.keySet().forEach(username -> {
+            userDetailsService.evict(username);
+            usernameAvailabilityService.add(username);
+        });
+    }
+
+    /**
+     * count ids de users_seq: cada nextval es el tope de un bloque de Ids.ALLOCATION_SIZE ids libres
+     */
+    private long[] allocateIds(int count) {
+        int blocks = (count + Ids.ALLOCATION_SIZE - 1) / Ids.ALLOCATION_SIZE;
+        List<Long> tops = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, blocks);
+
+        long[] ids = new long[count];
+        int i = 0;
+        for (long top : tops) {
+            for (long id = top - Ids.ALLOCATION_SIZE + 1; id <= top && i < count; id++) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private Set<String> existingUsernames(Set<String> usernames) {
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXISTING_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", usernames.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+
+    /**
+     * Mismas reglas que RegisterRequestDTO; un passwordHash tiene que tener un formato conocido
+     * (evita guardar una contraseña en claro puesta por error en esa columna) y los roles tienen que existir
+     */
+    private static boolean isValid(UserImportRowDTO row) {
+        String username = row.username();
+        if (username == null || username.isBlank() || username.length() < 3 || username.length() > 50) {
+            return false;
+        }
+        try {
+            Role.parseMask(row.roles());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (row.passwordHash() != null) {
+            String hash = row.passwordHash();
+            return hash.startsWith("{bcrypt}") || hash.startsWith("{argon2}") || hash.startsWith("{pbkdf2}")
+                    || hash.startsWith("$2a$") || hash.startsWith("$2b$") || hash.startsWith("$2y$");
+        }
+        return row.password() != null && row.password().length() >= 3;
+    }
+
+    private void logProgress(Counts counts, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Importación de usuarios: {} leídas, {} importadas ({} filas/s)",
+                counts.read, counts.imported, Math.round(counts.read / seconds));
+    }
+
+    private Iterator<UserImportRowDTO> ndjsonRows(InputStream in) throws IOException {
+        MappingIterator<UserImportRowDTO> iterator = objectMapper.readerFor(UserImportRowDTO.class).readValues(in);
+        return iterator;
+    }
+
+    /**
+     * CSV con header (username,password,passwordHash,roles en cualquier orden; basta username y
+     * password o passwordHash). Campos entre comillas dobles para valores con comas ("ADMIN,USER").
+     */
+    private static Iterator<UserImportRowDTO> csvRows(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return List.<UserImportRowDTO>of().iterator();
+        }
+        List<String> columns = parseCsvLine(header.strip());
+        int username = columns.indexOf("username");
+        int password = columns.indexOf("password");
+        int passwordHash = columns.indexOf("passwordHash");
+        int roles = columns.indexOf("roles");
+        if (username < 0 || (password < 0 && passwordHash < 0)) {
+            throw new IllegalArgumentException("El header del CSV necesita username y password o passwordHash");
+        }
+
+        return new Iterator<>() {
+            private String next = readDataLine();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public UserImportRowDTO next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> fields = parseCsvLine(next);
+                next = readDataLine();
+                return new UserImportRowDTO(field(fields, username), field(fields, password),
+                        field(fields, passwordHash), field(fields, roles));
+            }
+
+            private String readDataLine() {
+                try {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                    } while (line != null && line.isBlank());
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final class Counts {
+        long read;
+        long imported;
+        long existing;
+        long duplicates;
+        long invalid;
+
+        ImportResult toResult(long start) {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            long rowsPerSecond = elapsedMillis > 0 ? read * 1000 / elapsedMillis : read;
+            return new ImportResult(read, imported, existing, duplicates, invalid, elapsedMillis, rowsPerSecond);
+        }
+    }
+
+    /**
+     * Resumen de la importación
+     */
+    public record ImportResult(long read, long imported, long alreadyExisting, long duplicatesInInput,
+                               long invalid, long elapsedMillis, long rowsPerSecond) {
+    }
+}
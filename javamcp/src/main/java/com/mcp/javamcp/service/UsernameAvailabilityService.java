@@ -0,0 +1,124 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.repository.UserRepository;
+import com.mcp.javamcp.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Disponibilidad de usernames para el formulario de registro (GET /api/users/check/{username}).
+ *
+ * Un Bloom filter en memoria con todos los usernames: si dice que no está, el username está
+ * libre y no se toca la BD (el caso común mientras se tipea). Solo los posibles aciertos se
+ * confirman con existsByUsername.
+ *
+ * Se arma al arrancar recorriendo users.username con un cursor y se le suman los registros
+ * e importaciones de este nodo. Un Bloom filter no permite borrar: las bajas siguen dando
+ * "posible", y las confirma la BD. Cada rebuild-interval se arma de nuevo, lo que además
+ * suma lo registrado en otros nodos (hasta entonces este nodo puede dar por libre un username
+ * recién tomado en otro; el registro igual lo rechaza).
+ */
+@Slf4j
+@Service
+public class UsernameAvailabilityService {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    private final Counter filterNegative;
+    private final Counter available;
+    private final Counter taken;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    public UsernameAvailabilityService(
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.user-availability.expected-entries:1000000}") long expectedEntries,
+            @Value("${app.user-availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedEntries, falsePositiveRate);
+
+        this.filterNegative = checkCounter(meterRegistry, "filter_negative");
+        this.available = checkCounter(meterRegistry, "available");
+        this.taken = checkCounter(meterRegistry, "taken");
+    }
+
+    public boolean isAvailable(String username) {
+        if (!filter.mightContain(username)) {
+            filterNegative.increment();
+            return true;
+        }
+        if (userRepository.existsByUsername(username)) {
+            taken.increment();
+            return false;
+        }
+        available.increment();
+        return true;
+    }
+
+    /**
+     * Llamar después de crear un usuario (con el insert ya commiteado)
+     */
+    public void add(String username) {
+        filter.add(username);
+        // Durante un rebuild: el recorrido de la tabla pudo empezar antes del insert
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(username);
+        }
+    }
+
+    /**
+     * Arma un filtro nuevo con todos los usernames de la tabla
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${app.user-availability.rebuild-interval:1h}",
+            fixedDelayString = "${app.user-availability.rebuild-interval:1h}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        BloomFilter next = BloomFilter.create(Math.max(expectedEntries, 2 * userRepository.count()), falsePositiveRate);
+        building = next;
+        try {
+            long[] loaded = {0};
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamUsernames()) {
+                    usernames.forEach(username -> {
+                        next.add(username);
+                        loaded[0]++;
+                    });
+                }
+            });
+            filter = next;
+
+            log.info("Filtro de usernames reconstruido: {} usernames en {} ms",
+                    loaded[0], (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            building = null;
+        }
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(AuthMetrics.USERNAME_CHECK)
+                .description("Chequeos de disponibilidad de username (filter_negative = resuelto sin BD)")
+                .tag(AuthMetrics.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
+}
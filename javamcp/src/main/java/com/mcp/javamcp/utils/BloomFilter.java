@@ -0,0 +1,93 @@
+package com.mcp.javamcp.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter de strings, thread-safe y sin locks.
+ *
+ * mightContain == false es definitivo; true puede ser falso positivo con probabilidad
+ * ~falsePositiveRate mientras no se superen las expectedEntries. No permite borrar:
+ * para descartar entradas viejas se arma uno nuevo y se reemplaza.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+
+    private BloomFilter(int bitCount, int hashCount) {
+        this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Tamaño óptimo: m = -n·ln(p) / ln(2)², k = m/n · ln(2)
+     */
+    public static BloomFilter create(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedEntries > 0 y 0 < falsePositiveRate < 1");
+        }
+        double bits = -expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int bitCount = (int) Math.min(Math.max(64, Math.ceil(bits)), Integer.MAX_VALUE - 63);
+        int hashCount = Math.max(1, (int) Math.round(bitCount / (double) expectedEntries * Math.log(2)));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    public void add(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * FNV-1a sobre los chars + finalizador de MurmurHash3 para repartir bien los bits altos y bajos
+     */
+    private static long hash64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -2,12 +2,20 @@ package com.mcp.javamcp.utils;
 
 import com.mcp.javamcp.model.User;
 import com.mcp.javamcp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+/**
+ * Usuarios de prueba (gonza / admin), solo con --spring.profiles.active=dev.
+ * Fuera de dev no se paga el count() ni el BCrypt de los seeds en cada arranque.
+ */
+@Slf4j
 @Configuration
+@Profile("dev")
 public class DataLoader {
 
     @Bean
@@ -15,7 +23,7 @@ public class DataLoader {
         return args -> {
             // Verificar si ya existen usuarios
             if (userRepository.count() == 0) {
-                System.out.println("=== CREANDO USUARIOS DE PRUEBA ===");
+                log.info("Creando usuarios de prueba");
 
                 // Usuario 1
                 User user1 = new User();
@@ -23,7 +31,7 @@ public class DataLoader {
                 user1.setPassword(passwordEncoder.encode("123"));
                 user1.setRoles("USER");
                 userRepository.save(user1);
-                System.out.println("✅ Usuario creado: gonza/1234");
+                log.info("Usuario creado: gonza");
 
                 // Usuario 2 (opcional)
                 User user2 = new User();
@@ -31,11 +39,10 @@ public class DataLoader {
                 user2.setPassword(passwordEncoder.encode("admin"));
                 user2.setRoles("ADMIN,USER");
                 userRepository.save(user2);
-                System.out.println("✅ Usuario creado: admin/admin123");
+                log.info("Usuario creado: admin");
 
-                System.out.println("=== USUARIOS CREADOS CORRECTAMENTE ===");
             } else {
-                System.out.println("=== USUARIOS YA EXISTEN EN LA BD ===");
+                log.info("Usuarios de prueba ya existen en la BD");
             }
         };
     }
@@ -0,0 +1,41 @@
+package com.mcp.javamcp.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Nombres y helpers para los campos estructurados de los logs (JSON)
+ */
+public final class LogFields {
+
+    public static final String USERNAME_HASH = "username_hash";
+    public static final String PROVIDER = "provider";
+    public static final String OUTCOME = "outcome";
+    public static final String LATENCY_MS = "latency_ms";
+
+    private LogFields() {
+    }
+
+    /**
+     * Hash corto del username: permite correlacionar intentos de un mismo usuario
+     * sin dejar el username en claro en los logs
+     */
+    public static String usernameHash(String username) {
+        if (username == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(username.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    public static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mcp.javamcp.utils;
+
+import com.mcp.javamcp.service.UserImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Importación masiva por línea de comando:
+ * java -jar javamcp.jar --app.user-import.file=usuarios.csv --spring.main.web-application-type=none
+ * El formato sale de la extensión (.csv o .ndjson/.jsonl); al terminar la aplicación se cierra.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("app.user-import.file")
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImportService userImportService;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+
+    public UserImportRunner(UserImportService userImportService,
+                            ConfigurableApplicationContext context,
+                            @Value("${app.user-import.file}") Path file) {
+        this.userImportService = userImportService;
+        this.context = context;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String name = file.getFileName().toString().toLowerCase();
+        UserImportService.Format format = name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+
+        int exitCode = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            userImportService.importUsers(in, format);
+        } catch (Exception e) {
+            log.error("Importación de usuarios fallida ({})", file, e);
+            exitCode = 1;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,49 @@
+-- Esquema tal como lo generaba ddl-auto: update antes de usar Flyway.
+-- En una BD existente también corre (baseline-on-migrate la marca como V0): todo es IF NOT EXISTS,
+-- así que solo crea las tablas que falten.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    roles    VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS oauth2_users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    picture     VARCHAR(255),
+    provider    VARCHAR(255) NOT NULL,
+    provider_id VARCHAR(255) UNIQUE,
+    first_login TIMESTAMP(6),
+    last_login  TIMESTAMP(6),
+    login_count INTEGER,
+    roles       TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_oauth2_users_provider_id ON oauth2_users (provider, id);
+CREATE INDEX IF NOT EXISTS idx_oauth2_users_last_login ON oauth2_users (last_login);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash BYTEA                       NOT NULL UNIQUE,
+    username   VARCHAR(255)                NOT NULL,
+    family_id  UUID                        NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used_at    TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_username ON refresh_tokens (username);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_key  VARCHAR(255)                NOT NULL UNIQUE,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,29 @@
+-- Un usuario OAuth2 se identifica por (provider, provider_id): el id de GitHub y el sub de Google
+-- son espacios distintos. Reemplaza el unique de provider_id solo (nombre generado por Hibernate).
+
+DO $$
+DECLARE
+    c RECORD;
+BEGIN
+    FOR c IN
+        SELECT con.conname
+        FROM pg_constraint con
+                 JOIN pg_class rel ON rel.oid = con.conrelid
+                 JOIN pg_namespace nsp ON nsp.oid = rel.relnamespace
+                 JOIN pg_attribute att ON att.attrelid = rel.oid AND att.attnum = ANY (con.conkey)
+        WHERE nsp.nspname = current_schema()
+          AND rel.relname = 'oauth2_users'
+          AND con.contype = 'u'
+        GROUP BY con.conname
+        HAVING array_agg(att.attname::TEXT) = ARRAY ['provider_id']
+    LOOP
+        EXECUTE format('ALTER TABLE oauth2_users DROP CONSTRAINT %I', c.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE oauth2_users
+    ADD CONSTRAINT uk_oauth2_users_provider_provider_id UNIQUE (provider, provider_id);
+
+-- GitHub no siempre expone el email
+ALTER TABLE oauth2_users
+    ALTER COLUMN email DROP NOT NULL;
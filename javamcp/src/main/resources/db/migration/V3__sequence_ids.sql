@@ -0,0 +1,24 @@
+-- users y oauth2_users pasan de IDENTITY a secuencias con INCREMENT BY 50 (Ids.ALLOCATION_SIZE)
+-- para que Hibernate pueda mandar los inserts en batch.
+--
+-- Hibernate usa cada nextval como el tope de un bloque [valor - 49, valor]: la secuencia arranca
+-- en MAX(id) + 50 para que el primer bloque quede entero por encima de los ids existentes.
+-- El DEFAULT nextval(...) queda para los inserts por SQL (importación, upsert de OAuth2): usan
+-- el tope de su propio bloque, que nadie más reserva.
+-- Los LOCK evitan que un insert de la versión anterior se cuele entre el MAX(id) y el cambio.
+
+LOCK TABLE users IN EXCLUSIVE MODE;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+LOCK TABLE oauth2_users IN EXCLUSIVE MODE;
+
+CREATE SEQUENCE IF NOT EXISTS oauth2_users_seq INCREMENT BY 50;
+SELECT setval('oauth2_users_seq', COALESCE((SELECT MAX(id) FROM oauth2_users), 0) + 50);
+ALTER TABLE oauth2_users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE oauth2_users ALTER COLUMN id SET DEFAULT nextval('oauth2_users_seq');
+ALTER SEQUENCE oauth2_users_seq OWNED BY oauth2_users.id;
@@ -0,0 +1,24 @@
+-- Los roles pasan de texto ("ADMIN,USER") a un bitmask (model.Role): ADMIN = 2, USER = 1.
+-- Se aceptan espacios, minúsculas y el prefijo ROLE_; un nombre desconocido se pierde
+-- (ningún código lo usaba: Spring solo conoce ROLE_ADMIN y ROLE_USER).
+-- Las columnas de texto se borran: la versión anterior de la app no arranca contra este esquema.
+
+LOCK TABLE users IN EXCLUSIVE MODE;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role_mask INTEGER NOT NULL DEFAULT 0;
+UPDATE users u SET role_mask = (
+    SELECT COALESCE(bit_or(CASE regexp_replace(upper(trim(r)), '^ROLE_', '')
+                               WHEN 'ADMIN' THEN 2 WHEN 'USER' THEN 1 ELSE 0 END), 0)
+    FROM unnest(string_to_array(u.roles, ',')) AS r)
+WHERE u.roles IS NOT NULL;
+ALTER TABLE users DROP COLUMN IF EXISTS roles;
+
+LOCK TABLE oauth2_users IN EXCLUSIVE MODE;
+
+ALTER TABLE oauth2_users ADD COLUMN IF NOT EXISTS role_mask INTEGER NOT NULL DEFAULT 1;
+UPDATE oauth2_users u SET role_mask = (
+    SELECT COALESCE(bit_or(CASE regexp_replace(upper(trim(r)), '^ROLE_', '')
+                               WHEN 'ADMIN' THEN 2 WHEN 'USER' THEN 1 ELSE 0 END), 0)
+    FROM unnest(string_to_array(u.roles, ',')) AS r)
+WHERE u.roles IS NOT NULL;
+ALTER TABLE oauth2_users DROP COLUMN IF EXISTS roles;
@@ -0,0 +1,11 @@
+-- Bloqueos de login por fallos repetidos (LoginFailureTracker): se escriben en batch y se
+-- cargan al arrancar. username_hash = LogFields.usernameHash del username en minúsculas.
+
+CREATE TABLE IF NOT EXISTS login_lockouts (
+    username_hash VARCHAR(64) PRIMARY KEY,
+    failures      INTEGER   NOT NULL,
+    locked_until  TIMESTAMP NOT NULL,
+    updated_at    TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_login_lockouts_locked_until ON login_lockouts (locked_until);
@@ -2,18 +2,32 @@ package com.mcp.javamcp.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcp.javamcp.dto.LoginRequestDTO;
+import com.mcp.javamcp.dto.RefreshRequestDTO;
+import com.mcp.javamcp.model.OAuth2User;
 import com.mcp.javamcp.model.User;
+import com.mcp.javamcp.repository.OAuth2UserRepository;
 import com.mcp.javamcp.repository.UserRepository;
+import com.mcp.javamcp.service.UserExportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +48,12 @@ class CustomAuthControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private OAuth2UserRepository oauth2UserRepository;
+
+    @Autowired
+    private UserExportService userExportService;
+
     @BeforeEach
     void setUp() {
         // Limpiar y crear usuario de prueba
@@ -78,6 +98,33 @@ class CustomAuthControllerTest {
                 .andExpect(jsonPath("$.error").value("Credenciales inválidas"));
     }
 
+    @Test
+    void testLogin_LockedAfterRepeatedFailures() throws Exception {
+        User user = new User();
+        user.setUsername("lockeduser");
+        user.setPassword(passwordEncoder.encode("rightpass"));
+        user.setRoles("USER");
+        userRepository.save(user);
+
+        String wrong = objectMapper.writeValueAsString(new LoginRequestDTO("lockeduser", "wrongpass"));
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                            .with(request -> { request.setRemoteAddr("10.9.0.1"); return request; })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(wrong))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Bloqueado: ni la contraseña correcta pasa hasta que vence el back-off
+        mockMvc.perform(post("/api/auth/login")
+                        .with(request -> { request.setRemoteAddr("10.9.0.1"); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDTO("lockeduser", "rightpass"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.error").value("Usuario bloqueado"));
+    }
+
     @Test
     void testLogin_UserNotFound() throws Exception {
         // Arrange
@@ -124,4 +171,186 @@ class CustomAuthControllerTest {
         assert token.split("\\.").length == 3 : "JWT debe tener 3 partes";
         assert token.startsWith("eyJ") : "JWT debe comenzar con 'eyJ'";
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLogin_ReturnsRefreshToken() throws Exception {
+        // Arrange
+        LoginRequestDTO request = new LoginRequestDTO("testuser", "testpass");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+    }
+
+    @Test
+    void testRefresh_Success() throws Exception {
+        // Arrange
+        String refreshToken = loginAndGetRefreshToken();
+
+        // Act & Assert
+        String response = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequestDTO(refreshToken))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.username").value("testuser"))
+                .andExpect(jsonPath("$.expiresIn").value(3600))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // El refresh token rota en cada uso
+        String rotated = objectMapper.readTree(response).get("refreshToken").asText();
+        assertNotEquals(refreshToken, rotated);
+    }
+
+    @Test
+    void testRefresh_ReuseRevokesFamily() throws Exception {
+        // Arrange
+        String refreshToken = loginAndGetRefreshToken();
+        String response = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequestDTO(refreshToken))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String rotated = objectMapper.readTree(response).get("refreshToken").asText();
+
+        // Act & Assert - reutilizar el token viejo revoca también el nuevo
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequestDTO(refreshToken))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Refresh token inválido"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequestDTO(rotated))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRefresh_UnknownToken() throws Exception {
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequestDTO("no-existe"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testUsers_KeysetPagination() throws Exception {
+        // Provider propio para no mezclarse con los usuarios que ya estén en la tabla
+        saveOAuth2User("a@example.com", "test-listing", LocalDateTime.of(2025, 1, 1, 10, 0));
+        saveOAuth2User("b@example.com", "test-listing", LocalDateTime.of(2025, 2, 1, 10, 0));
+        saveOAuth2User("c@example.com", "test-listing", LocalDateTime.of(2025, 3, 1, 10, 0));
+
+        String firstPage = mockMvc.perform(get("/api/auth/users")
+                        .param("provider", "test-listing")
+                        .param("size", "2")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath("$.users[0].email").value("a@example.com"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/auth/users")
+                        .param("provider", "test-listing")
+                        .param("size", "2")
+                        .param("after", cursor)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].email").value("c@example.com"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testUsers_LastLoginFilter() throws Exception {
+        saveOAuth2User("old@example.com", "test-listing", LocalDateTime.of(2024, 6, 1, 10, 0));
+        saveOAuth2User("new@example.com", "test-listing", LocalDateTime.of(2025, 6, 1, 10, 0));
+
+        mockMvc.perform(get("/api/auth/users")
+                        .param("provider", "test-listing")
+                        .param("lastLoginFrom", "2025-01-01T00:00:00")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].email").value("new@example.com"));
+    }
+
+    @Test
+    void testUsers_ForbiddenForNonAdmin() throws Exception {
+        mockMvc.perform(get("/api/auth/users")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/auth/users/export")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testExport_OneJsonPerLine() throws Exception {
+        // El endpoint escribe en otro hilo (fuera de la transacción del test): se prueba el servicio directo
+        saveOAuth2User("a@example.com", "test-export", LocalDateTime.of(2025, 1, 1, 10, 0));
+        saveOAuth2User("b@example.com", "test-export", LocalDateTime.of(2025, 2, 1, 10, 0));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = userExportService.exportProfiles("test-export", null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals("a@example.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals("b@example.com", objectMapper.readTree(lines[1]).get("email").asText());
+    }
+
+    @Test
+    void testExport_UsesOwnAsyncTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/auth/users/export")
+                        .param("provider", "test-export-timeout")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // app.user-export.timeout (30m), no el default async de Spring MVC
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+    }
+
+    private void saveOAuth2User(String email, String provider, LocalDateTime lastLogin) {
+        OAuth2User user = new OAuth2User();
+        user.setEmail(email);
+        user.setName(email);
+        user.setProvider(provider);
+        user.setProviderId(provider + ":" + email);
+        user.setFirstLogin(lastLogin);
+        user.setLastLogin(lastLogin);
+        user.setLoginCount(1);
+        oauth2UserRepository.save(user);
+    }
+
+    private String loginAndGetRefreshToken() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDTO("testuser", "testpass"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("refreshToken").asText();
+    }
+}
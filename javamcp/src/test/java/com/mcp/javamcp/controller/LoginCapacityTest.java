@@ -0,0 +1,137 @@
+package com.mcp.javamcp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.javamcp.dto.LoginRequestDTO;
+import com.mcp.javamcp.security.BoundedAuthenticationExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * POST /api/auth/login con el pool de verificación saturado: 503 + Retry-After
+ * (pool de un hilo y un lugar en cola, contexto propio)
+ */
+@SpringBootTest(properties = {
+        "app.security.login-pool.threads=1",
+        "app.security.login-pool.queue-capacity=1",
+        "app.security.login-pool.timeout=300ms",
+        "app.security.login-pool.retry-after=2s"
+})
+@AutoConfigureMockMvc
+class LoginCapacityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BoundedAuthenticationExecutor authenticationExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private CountDownLatch release;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        release = new CountDownLatch(1);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        callers.shutdown();
+        callers.awaitTermination(5, TimeUnit.SECONDS);
+        // Las tareas canceladas siguen en la cola hasta que el hilo las descarta
+        awaitGauge("auth.login.pool.queue.size", 0);
+        awaitGauge("auth.login.pool.active", 0);
+    }
+
+    @Test
+    void testLogin_PoolSaturated_Returns503() throws Exception {
+        occupyThread();
+        callers.submit(() -> authenticationExecutor.authenticate(this::blockUntilReleased));
+        awaitGauge("auth.login.pool.queue.size", 1);
+
+        login("10.9.2.1")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").value("Servicio saturado"));
+    }
+
+    @Test
+    void testLogin_QueuedPastTimeout_Returns503() throws Exception {
+        occupyThread();
+
+        long start = System.nanoTime();
+        login("10.9.2.2")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    private ResultActions login(String ip) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(ip); // bucket de rate limit propio
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequestDTO("capacityuser", "password"))));
+    }
+
+    private void occupyThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> authenticationExecutor.authenticate(() -> {
+            started.countDown();
+            return blockUntilReleased();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Ignora el interrupt del cancel(true): si la llamada que ocupa el hilo vence, el hilo
+     * sigue ocupado y el login del test no llega a verificarse
+     */
+    private TestingAuthenticationToken blockUntilReleased() {
+        boolean waiting = true;
+        while (waiting) {
+            try {
+                release.await();
+                waiting = false;
+            } catch (InterruptedException ignored) {
+                // sigue esperando el release
+            }
+        }
+        return new TestingAuthenticationToken("capacityuser", null);
+    }
+
+    private void awaitGauge(String name, int value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() != value) {
+            assertTrue(System.nanoTime() < deadline, name + " no llegó a " + value);
+            Thread.sleep(10);
+        }
+    }
+}
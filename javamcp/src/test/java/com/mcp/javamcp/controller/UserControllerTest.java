@@ -2,16 +2,21 @@ package com.mcp.javamcp.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcp.javamcp.dto.RegisterRequestDTO;
+import com.mcp.javamcp.model.OAuth2User;
 import com.mcp.javamcp.model.User;
+import com.mcp.javamcp.repository.OAuth2UserRepository;
 import com.mcp.javamcp.repository.UserRepository;
+import com.mcp.javamcp.service.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,6 +39,12 @@ class UserControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private OAuth2UserRepository oauth2UserRepository;
+
     @BeforeEach
     void setUp() {
         // Limpiar usuarios antes de cada test
@@ -119,4 +130,93 @@ class UserControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void testCheckUsername_AvailableThenTakenAfterRegister() throws Exception {
+        mockMvc.perform(get("/api/users/check/checkuser").with(remoteAddr("10.9.1.1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("checkuser"))
+                .andExpect(jsonPath("$.available").value(true));
+
+        mockMvc.perform(post("/api/users/register")
+                        .with(remoteAddr("10.9.1.1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new RegisterRequestDTO("checkuser", "password123", "password123"))))
+                .andExpect(status().isCreated());
+
+        // El filtro ya lo tiene: se confirma contra la BD
+        mockMvc.perform(get("/api/users/check/checkuser").with(remoteAddr("10.9.1.1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false));
+    }
+
+    @Test
+    void testCheckUsername_TooShort() throws Exception {
+        mockMvc.perform(get("/api/users/check/ab").with(remoteAddr("10.9.1.2")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Datos inválidos"));
+    }
+
+    @Test
+    void testChangePassword_RevokesExistingTokens() throws Exception {
+        // Arrange - usuario propio: la revocación queda en memoria aunque el test haga rollback
+        User user = new User();
+        user.setUsername("pwchangeuser");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRoles("USER");
+        userRepository.save(user);
+
+        String token = tokenService.issue("pwchangeuser", AuthorityUtils.createAuthorityList("ROLE_USER"))
+                .tokenValue();
+
+        // Act
+        mockMvc.perform(put("/api/users/change-password")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"password\",\"newPassword\":\"newpassword\"}"))
+                .andExpect(status().isOk());
+
+        // Assert - el token anterior ya no sirve
+        mockMvc.perform(get("/api/users/profile")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testDeleteAccount_OAuth2ByProviderAndId() throws Exception {
+        // Mismo email con dos providers: solo se borra la cuenta del token
+        OAuth2User google = saveOAuth2User("test-google", "g-1", "dup@example.com");
+        OAuth2User github = saveOAuth2User("test-github", "h-1", "dup@example.com");
+
+        String token = tokenService.issue("Dup", AuthorityUtils.createAuthorityList("OAUTH2_USER"),
+                "test-google", "g-1", "dup@example.com").tokenValue();
+
+        mockMvc.perform(delete("/api/users/profile")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        assert oauth2UserRepository.findById(google.getId()).isEmpty();
+        assert oauth2UserRepository.findById(github.getId()).isPresent();
+    }
+
+    private OAuth2User saveOAuth2User(String provider, String providerId, String email) {
+        OAuth2User user = new OAuth2User();
+        user.setProvider(provider);
+        user.setProviderId(providerId);
+        user.setEmail(email);
+        user.setName("Dup");
+        return oauth2UserRepository.save(user);
+    }
+
+    /**
+     * IP propia para no gastar el bucket de rate limit de 127.0.0.1 que usan los demás tests
+     */
+    private static RequestPostProcessor remoteAddr(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
 }
@@ -0,0 +1,79 @@
+package com.mcp.javamcp.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BD creada antes de Flyway (solo users y oauth2_users, como las dejaba ddl-auto: update):
+ * con la configuración de spring.flyway tiene que quedar con el esquema completo, ya que
+ * Hibernate no crea tablas (ddl-auto: none). Corre en un schema aparte que se borra al final.
+ */
+@SpringBootTest
+class FlywayBaselineMigrationTest {
+
+    private static final String SCHEMA = "flyway_pre_series";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.flyway.baseline-on-migrate}")
+    private boolean baselineOnMigrate;
+
+    @Value("${spring.flyway.baseline-version}")
+    private String baselineVersion;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void testPreFlywayDatabase_GetsFullSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE " + SCHEMA + ".users (" +
+                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "username VARCHAR(255) NOT NULL UNIQUE, " +
+                "password VARCHAR(255) NOT NULL, " +
+                "roles VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE " + SCHEMA + ".oauth2_users (" +
+                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "email VARCHAR(255) NOT NULL, name VARCHAR(255), picture VARCHAR(255), " +
+                "provider VARCHAR(255) NOT NULL, provider_id VARCHAR(255) UNIQUE, " +
+                "first_login TIMESTAMP(6), last_login TIMESTAMP(6), login_count INTEGER, roles TEXT)");
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + ".users (username, password, roles) VALUES (?, ?, ?)",
+                "legacy-admin", "{noop}x", "ADMIN,USER");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .baselineOnMigrate(baselineOnMigrate)
+                .baselineVersion(baselineVersion)
+                .load()
+                .migrate();
+
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = ?", String.class, SCHEMA);
+        assertTrue(tables.containsAll(List.of("refresh_tokens", "revoked_tokens", "login_lockouts")), tables.toString());
+
+        // Las migraciones siguientes a V1 también corrieron sobre los datos existentes
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT role_mask FROM " + SCHEMA + ".users WHERE username = ?", Integer.class, "legacy-admin"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.sequences WHERE sequence_schema = ? AND sequence_name = ?",
+                Integer.class, SCHEMA, "oauth2_users_seq"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.mcp.javamcp.repository;
+
+import com.mcp.javamcp.model.Ids;
+import com.mcp.javamcp.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Con ids por secuencia los inserts van en batch: un bloque de Ids.ALLOCATION_SIZE usuarios
+ * es un nextval y un único PreparedStatement con executeBatch (con IDENTITY eran N statements)
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class UserRepositoryBatchTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testSaveAll_InsertsInOneBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Consumir el primer nextval para que el bloque siguiente arranque limpio
+        userRepository.saveAndFlush(newUser("batch-warmup"));
+        statistics.clear();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < Ids.ALLOCATION_SIZE; i++) {
+            users.add(newUser("batch-user-" + i));
+        }
+        userRepository.saveAll(users);
+        entityManager.flush();
+
+        assertEquals(Ids.ALLOCATION_SIZE, statistics.getEntityInsertCount());
+        // nextval del bloque nuevo + el INSERT en batch
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "statements preparados: " + statistics.getPrepareStatementCount());
+        assertTrue(users.stream().allMatch(u -> u.getId() != null));
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}password");
+        user.setRoles("USER");
+        return user;
+    }
+}
@@ -0,0 +1,149 @@
+package com.mcp.javamcp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pool de login con un hilo y un lugar en cola (sin contexto Spring)
+ */
+class BoundedAuthenticationExecutorTest {
+
+    private static final Authentication AUTHENTICATED = new TestingAuthenticationToken("user", null, "ROLE_USER");
+
+    private SimpleMeterRegistry meterRegistry;
+    private CountDownLatch release;
+    private ExecutorService callers;
+    private BoundedAuthenticationExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        executor.shutdown();
+    }
+
+    @Test
+    void testQueueFull_RejectsImmediately() throws Exception {
+        executor = executor(Duration.ofSeconds(5));
+        occupyThread();
+        callers.submit(() -> executor.authenticate(() -> AUTHENTICATED));
+        awaitQueueSize(1);
+
+        long start = System.nanoTime();
+        LoginCapacityExceededException e = assertThrows(LoginCapacityExceededException.class,
+                () -> executor.authenticate(() -> AUTHENTICATED));
+
+        // Sin esperar el timeout
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+        assertEquals(1, meterRegistry.get("auth.login.pool.rejected").counter().count());
+    }
+
+    @Test
+    void testQueuedTooLong_TimesOut() throws Exception {
+        executor = executor(Duration.ofMillis(200));
+        occupyThread();
+        // La llamada que ocupa el hilo también vence a los 200ms; el hilo sigue ocupado igual
+        awaitRejections(1);
+
+        LoginCapacityExceededException e = assertThrows(LoginCapacityExceededException.class,
+                () -> executor.authenticate(() -> AUTHENTICATED));
+
+        assertEquals("Timeout esperando verificación de password", e.getMessage());
+        assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+        assertEquals(2, meterRegistry.get("auth.login.pool.rejected").counter().count());
+        // Venció en la cola: la tarea nunca llegó a un hilo
+        assertEquals(1, meterRegistry.get("auth.login.pool.wait").timer().count());
+    }
+
+    @Test
+    void testSlowVerification_TimesOutAndInterrupts() throws Exception {
+        executor = executor(Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(LoginCapacityExceededException.class, () -> executor.authenticate(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return AUTHENTICATED;
+        }));
+
+        // El hilo del pool queda libre para el próximo login
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertSame(AUTHENTICATED, executor.authenticate(() -> AUTHENTICATED));
+    }
+
+    @Test
+    void testAuthenticationException_RethrownAsIs() {
+        executor = executor(Duration.ofSeconds(5));
+
+        assertThrows(BadCredentialsException.class, () -> executor.authenticate(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+        assertEquals(0, meterRegistry.get("auth.login.pool.rejected").counter().count());
+    }
+
+    private BoundedAuthenticationExecutor executor(Duration timeout) {
+        return new BoundedAuthenticationExecutor(meterRegistry, 1, 1, timeout, Duration.ofSeconds(2));
+    }
+
+    /**
+     * Ocupa el único hilo del pool hasta el final del test. Ignora el interrupt del
+     * cancel(true) para que el timeout de esta misma llamada no libere el hilo.
+     */
+    private void occupyThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> executor.authenticate(() -> {
+            started.countDown();
+            boolean waiting = true;
+            while (waiting) {
+                try {
+                    release.await();
+                    waiting = false;
+                } catch (InterruptedException ignored) {
+                    // sigue esperando el release
+                }
+            }
+            return AUTHENTICATED;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitRejections(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.login.pool.rejected").counter().count() != count) {
+            assertTrue(System.nanoTime() < deadline, "Los rechazos no llegaron a " + count);
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.login.pool.queue.size").gauge().value() != size) {
+            assertTrue(System.nanoTime() < deadline, "La cola no llegó a " + size);
+            Thread.sleep(10);
+        }
+    }
+}
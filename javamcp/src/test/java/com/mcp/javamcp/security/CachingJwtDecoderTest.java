@@ -0,0 +1,70 @@
+package com.mcp.javamcp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del cache de JWT verificados (sin contexto Spring)
+ */
+class CachingJwtDecoderTest {
+
+    private final Instant now = Instant.parse("2025-01-01T10:00:00Z");
+    private final Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final JwtDecoder delegate = token -> {
+        verifications.incrementAndGet();
+        // Los "expired" se emitieron hace una hora (Jwt exige expiresAt posterior a issuedAt)
+        boolean expired = token.startsWith("expired");
+        Instant issuedAt = expired ? now.minusSeconds(3600) : now;
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject(token)
+                .issuedAt(issuedAt)
+                .expiresAt(expired ? now.minusSeconds(1) : now.plusSeconds(3600))
+                .build();
+    };
+
+    @Test
+    void testDecode_SameTokenVerifiedOnce() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofHours(1), clock);
+
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, decoder.hitCount());
+        assertEquals(1, decoder.missCount());
+    }
+
+    @Test
+    void testDecode_ExpiredTokenNotCached() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofHours(1), clock);
+
+        decoder.decode("expired-token");
+        decoder.decode("expired-token");
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testInvalidate_ForcesVerificationAgain() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofHours(1), clock);
+
+        decoder.decode("token-b");
+        decoder.invalidate("token-b");
+        decoder.decode("token-b");
+
+        assertEquals(2, verifications.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.service.TokenService;
+import com.nimbusds.jose.jwk.JWK;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rotación de claves: la activa firma, las anteriores siguen verificando hasta salir del llavero
+ */
+class JwtKeyManagerTest {
+
+    @Test
+    void testRotate_PreviousKeyStillVerifies() throws Exception {
+        JwtSigningKey first = JwtSigningKey.of(SigningKeyJwtDecoderTest.generate(JwtSigningKey.ES256));
+        JwtKeyManager keyManager = new JwtKeyManager(first, 1);
+        TokenService tokenService = new TokenService(keyManager, new SimpleMeterRegistry(), "http://localhost:8080");
+        SigningKeyJwtDecoder decoder = new SigningKeyJwtDecoder(keyManager);
+
+        String oldToken = issue(tokenService);
+        JwtSigningKey second = JwtSigningKey.of(SigningKeyJwtDecoderTest.generate(JwtSigningKey.ES256));
+        assertTrue(keyManager.rotate(second));
+        String newToken = issue(tokenService);
+
+        Jwt oldJwt = decoder.decode(oldToken);
+        Jwt newJwt = decoder.decode(newToken);
+        assertEquals(first.keyId(), oldJwt.getHeaders().get("kid"));
+        assertEquals(second.keyId(), newJwt.getHeaders().get("kid"));
+    }
+
+    @Test
+    void testRotate_OldestKeyDropped() throws Exception {
+        JwtSigningKey first = JwtSigningKey.of(SigningKeyJwtDecoderTest.generate(JwtSigningKey.ES256));
+        JwtKeyManager keyManager = new JwtKeyManager(first, 1);
+        String firstToken = issue(new TokenService(keyManager, new SimpleMeterRegistry(), "http://localhost:8080"));
+
+        keyManager.rotate(JwtSigningKey.of(SigningKeyJwtDecoderTest.generate(JwtSigningKey.ES256)));
+        keyManager.rotate(JwtSigningKey.of(SigningKeyJwtDecoderTest.generate(JwtSigningKey.ES256)));
+
+        assertNull(keyManager.find(first.keyId()));
+        assertEquals(1, keyManager.previous().size());
+        assertThrows(BadJwtException.class, () -> new SigningKeyJwtDecoder(keyManager).decode(firstToken));
+    }
+
+    @Test
+    void testRotate_SameKeyIsNoop() throws Exception {
+        JWK jwk = SigningKeyJwtDecoderTest.generate(JwtSigningKey.EDDSA);
+        JwtKeyManager keyManager = new JwtKeyManager(JwtSigningKey.of(jwk), 2);
+        String eTag = keyManager.jwksETag();
+
+        // Misma clave releída del PEM: mismo thumbprint, no rota
+        assertFalse(keyManager.rotate(JwtSigningKey.of(jwk)));
+        assertEquals(eTag, keyManager.jwksETag());
+        assertTrue(keyManager.previous().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testJwks_PublishesActiveAndPreviousPublicKeys() throws Exception {
+        JwtSigningKey first = JwtSigningKey.of(SigningKeyJwtDecoderTest.generate(JwtSigningKey.RS256));
+        JwtSigningKey second = JwtSigningKey.of(SigningKeyJwtDecoderTest.generate(JwtSigningKey.RS256));
+        JwtKeyManager keyManager = new JwtKeyManager(first, 2);
+        String eTag = keyManager.jwksETag();
+
+        keyManager.rotate(second);
+
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keyManager.jwks().get("keys");
+        assertEquals(List.of(second.keyId(), first.keyId()), keys.stream().map(k -> k.get("kid")).toList());
+        assertTrue(keys.stream().noneMatch(k -> k.containsKey("d")));
+        assertNotEquals(eTag, keyManager.jwksETag());
+    }
+
+    private static String issue(TokenService tokenService) {
+        return tokenService.issue("testuser", AuthorityUtils.createAuthorityList("ROLE_USER")).tokenValue();
+    }
+}
@@ -0,0 +1,130 @@
+package com.mcp.javamcp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rate limit de login/registro con el store en memoria (sin contexto Spring)
+ */
+class LoginRateLimitFilterTest {
+
+    private LocalRateLimitStore store;
+    private LoginRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalRateLimitStore(1000);
+        filter = new LoginRateLimitFilter(store, new ObjectMapper(), new SimpleMeterRegistry(), true,
+                3, Duration.ofMinutes(1), 2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testIpLimit_RejectsWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, login("10.0.0.1", "user" + i).getStatus());
+        }
+
+        MockHttpServletResponse rejected = login("10.0.0.1", "other");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+
+        // Otra IP tiene su propio bucket
+        assertEquals(200, login("10.0.0.2", "other").getStatus());
+    }
+
+    @Test
+    void testUsernameLimit_AcrossIpsAndCase() throws Exception {
+        assertEquals(200, login("10.0.1.1", "victim").getStatus());
+        assertEquals(200, login("10.0.1.2", "Victim").getStatus());
+        assertEquals(429, login("10.0.1.3", "VICTIM ").getStatus());
+
+        assertEquals(1, store.topRejected(10).size());
+        assertTrue(store.topRejected(10).get(0).key().startsWith("user:"));
+    }
+
+    @Test
+    void testBody_StillReadableDownstream() throws Exception {
+        MockHttpServletRequest request = jsonLogin("10.0.2.1", "reader");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("{\"username\":\"reader\",\"password\":\"secret\"}", body);
+    }
+
+    @Test
+    void testUsernameCheck_SharesIpBucket() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, check("10.0.4.1", "candidate" + i).getStatus());
+        }
+        assertEquals(200, login("10.0.4.1", "someone").getStatus());
+
+        // Misma IP: ni más chequeos ni más logins
+        assertEquals(429, check("10.0.4.1", "candidate9").getStatus());
+        assertEquals(429, login("10.0.4.1", "someone").getStatus());
+    }
+
+    @Test
+    void testStoreFull_NewKeysShareOverflowBucket() {
+        // 16 stripes de una clave cada una
+        LocalRateLimitStore small = new LocalRateLimitStore(16);
+        RateLimit limit = new RateLimit("ip", 3, Duration.ofMinutes(1));
+
+        int rejected = 0;
+        for (int i = 0; i < 200; i++) {
+            if (small.tryConsume("ip:10.1." + (i / 256) + "." + (i % 256), limit) > 0) {
+                rejected++;
+            }
+        }
+
+        // Como mucho una clave propia y 3 tokens de desborde por stripe
+        assertTrue(rejected >= 200 - 16 * 4, "rechazadas: " + rejected);
+        assertEquals(16, small.size());
+        assertTrue(small.overflowed() > 0);
+    }
+
+    @Test
+    void testOtherEndpoints_NotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/info");
+            request.setRemoteAddr("10.0.3.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0, store.size());
+    }
+
+    private MockHttpServletResponse check(String ip, String username) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/check/" + username);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse login(String ip, String username) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(jsonLogin(ip, username), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest jsonLogin(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,123 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.model.User;
+import com.mcp.javamcp.repository.UserRepository;
+import com.mcp.javamcp.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calibración de costos y re-hash de contraseñas en el login (sin contexto Spring ni BD)
+ */
+class PasswordHashingTest {
+
+    private final Map<String, User> users = new HashMap<>();
+
+    @Test
+    void testCalibration_NeverBelowMinimums() {
+        // Con un objetivo imposible la calibración no baja de los mínimos
+        assertEquals(PasswordHashing.MIN_BCRYPT_STRENGTH,
+                PasswordHashing.calibrateBcryptStrength(Duration.ofNanos(1), PasswordHashing.MIN_BCRYPT_STRENGTH));
+        assertEquals(PasswordHashing.MIN_ARGON2_ITERATIONS,
+                PasswordHashing.calibrateArgon2Iterations(Duration.ofNanos(1), PasswordHashing.MIN_ARGON2_ITERATIONS));
+
+        assertTrue(PasswordHashing.calibrateBcryptStrength(Duration.ofMillis(100), PasswordHashing.MIN_BCRYPT_STRENGTH)
+                >= PasswordHashing.MIN_BCRYPT_STRENGTH);
+        assertTrue(PasswordHashing.calibrateArgon2Iterations(Duration.ofMillis(100), PasswordHashing.MIN_ARGON2_ITERATIONS)
+                >= PasswordHashing.MIN_ARGON2_ITERATIONS);
+    }
+
+    @Test
+    void testLegacyBcryptHash_RehashedWithPrefixOnLogin() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        assertTrue(legacy.startsWith("$2a$"));
+        saveUser("legacy", legacy);
+
+        PasswordEncoder encoder = encoder(PasswordHashing.BCRYPT);
+        login(encoder, "legacy", "secret");
+
+        String stored = users.get("legacy").getPassword();
+        assertTrue(stored.startsWith("{bcrypt}$2a$" + PasswordHashing.MIN_BCRYPT_STRENGTH + "$"), stored);
+        assertTrue(encoder.matches("secret", stored));
+        // El hash nuevo sirve para el próximo login
+        login(encoder, "legacy", "secret");
+    }
+
+    @Test
+    void testLegacyBcryptHash_RehashedToArgon2() {
+        saveUser("migrating", new BCryptPasswordEncoder(4).encode("secret"));
+
+        PasswordEncoder encoder = encoder(PasswordHashing.ARGON2);
+        login(encoder, "migrating", "secret");
+
+        String stored = users.get("migrating").getPassword();
+        assertTrue(stored.startsWith("{argon2}"), stored);
+        assertTrue(encoder.matches("secret", stored));
+    }
+
+    @Test
+    void testCurrentHash_NotRehashed() {
+        PasswordEncoder encoder = encoder(PasswordHashing.BCRYPT);
+        String current = encoder.encode("secret");
+        saveUser("current", current);
+
+        login(encoder, "current", "secret");
+
+        assertEquals(current, users.get("current").getPassword());
+    }
+
+    private void login(PasswordEncoder encoder, String username, String password) {
+        CustomUserDetailsService userDetailsService =
+                new CustomUserDetailsService(repository(), new SimpleMeterRegistry(), 100, Duration.ofSeconds(30));
+
+        // Igual que AuthServerConfig.authenticationManager
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        assertTrue(provider.authenticate(new UsernamePasswordAuthenticationToken(username, password)).isAuthenticated());
+    }
+
+    private static PasswordEncoder encoder(String algorithm) {
+        return PasswordHashing.delegating(algorithm,
+                PasswordHashing.bcrypt(PasswordHashing.MIN_BCRYPT_STRENGTH),
+                PasswordHashing.argon2(PasswordHashing.MIN_ARGON2_ITERATIONS),
+                PasswordHashing.pbkdf2(PasswordHashing.DEFAULT_PBKDF2_ITERATIONS));
+    }
+
+    private void saveUser(String username, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setRoles("USER");
+        users.put(username, user);
+    }
+
+    /**
+     * UserRepository en memoria: solo lo que usa CustomUserDetailsService
+     */
+    private UserRepository repository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUsername" -> Optional.ofNullable(users.get((String) args[0]));
+                    case "updatePassword" -> {
+                        users.get((String) args[0]).setPassword((String) args[1]);
+                        yield 1;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
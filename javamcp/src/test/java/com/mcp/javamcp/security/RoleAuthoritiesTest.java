@@ -0,0 +1,61 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del modelo de roles y del cache de authorities (sin contexto Spring)
+ */
+class RoleAuthoritiesTest {
+
+    @Test
+    void testParseMask_AcceptsLegacyFormats() {
+        int mask = Role.ADMIN.bit() | Role.USER.bit();
+
+        assertEquals(mask, Role.parseMask("ADMIN,USER"));
+        assertEquals(mask, Role.parseMask(" user , ROLE_admin "));
+        assertEquals(0, Role.parseMask(null));
+        assertEquals("ADMIN,USER", Role.format(mask));
+        assertEquals("USER", Role.format(Role.USER.bit()));
+        assertThrows(IllegalArgumentException.class, () -> Role.parseMask("USER,ROOT"));
+    }
+
+    @Test
+    void testParseMask_IndependentOfDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // En turco "admin".toUpperCase() da "ADMİN"
+            assertEquals(Role.ADMIN.bit(), Role.parseMask("admin"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void testOf_SameRolesShareInstance() {
+        RoleAuthorities first = RoleAuthorities.of(Role.parseMask("USER,ADMIN"));
+        RoleAuthorities second = RoleAuthorities.of(Role.parseMask("ADMIN,USER"));
+
+        assertSame(first, second);
+        assertSame(first.names(), RoleAuthorities.names(second));
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), first.names());
+    }
+
+    @Test
+    void testEquals_MatchesPlainAuthorityList() {
+        var plain = AuthorityUtils.createAuthorityList("ROLE_USER");
+        RoleAuthorities cached = RoleAuthorities.of(Role.USER.bit());
+
+        assertEquals(plain, cached);
+        assertEquals(cached, plain);
+        assertEquals(plain.hashCode(), cached.hashCode());
+        assertEquals(List.of("ROLE_USER"), RoleAuthorities.names(plain));
+    }
+}
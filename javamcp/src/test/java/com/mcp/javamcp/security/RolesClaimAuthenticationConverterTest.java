@@ -0,0 +1,64 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Authorities del claim "roles" (sin contexto Spring)
+ */
+class RolesClaimAuthenticationConverterTest {
+
+    private final RolesClaimAuthenticationConverter converter = new RolesClaimAuthenticationConverter();
+
+    @Test
+    void testConvert_KnownRolesReuseSharedAuthorities() {
+        AbstractAuthenticationToken first = converter.convert(jwt("a", new ArrayList<>(List.of("ROLE_ADMIN", "ROLE_USER"))));
+        AbstractAuthenticationToken second = converter.convert(jwt("b", new ArrayList<>(List.of("ROLE_ADMIN", "ROLE_USER"))));
+
+        assertEquals("a", first.getName());
+        assertSame(RoleAuthorities.of(Role.ADMIN.bit() | Role.USER.bit()), first.getAuthorities());
+        assertSame(first.getAuthorities(), second.getAuthorities());
+    }
+
+    @Test
+    void testConvert_UnknownRolesCachedByClaimList() {
+        AbstractAuthenticationToken first = converter.convert(jwt("a", List.of("OAUTH2_USER")));
+        AbstractAuthenticationToken second = converter.convert(jwt("b", List.of("OAUTH2_USER")));
+
+        assertEquals(List.of("OAUTH2_USER"), RoleAuthorities.names(first.getAuthorities()));
+        assertSame(first.getAuthorities(), second.getAuthorities());
+    }
+
+    @Test
+    void testConvert_ScopesAndMissingRoles() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("client")
+                .claim("scope", "read write")
+                .issuedAt(Instant.now())
+                .build();
+
+        List<String> names = converter.convert(jwt).getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).toList();
+
+        assertEquals(List.of("SCOPE_read", "SCOPE_write"), names);
+    }
+
+    private static Jwt jwt(String subject, List<String> roles) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(subject)
+                .claim(RolesClaimAuthenticationConverter.ROLES_CLAIM, roles)
+                .issuedAt(Instant.now())
+                .build();
+    }
+}
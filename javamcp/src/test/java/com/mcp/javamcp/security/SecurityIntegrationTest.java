@@ -2,6 +2,7 @@ package com.mcp.javamcp.security;
 
 import com.mcp.javamcp.model.User;
 import com.mcp.javamcp.repository.UserRepository;
+import com.mcp.javamcp.service.TokenRevocationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +13,14 @@ import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,6 +44,9 @@ class SecurityIntegrationTest {
     @Autowired
     private JwtEncoder jwtEncoder;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     private String validToken;
     private String adminToken;
 
@@ -101,6 +107,39 @@ class SecurityIntegrationTest {
                 .andExpect(jsonPath("$.authenticated").value(true));
     }
 
+    @Test
+    void testRolesClaim_AdminEndpoints() throws Exception {
+        // Las authorities salen del claim "roles" del token, sin @WithMockUser ni BD
+        mockMvc.perform(get("/api/auth/users")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/users")
+                        .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/user/info")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_ADMIN"))
+                .andExpect(jsonPath("$.roles[1]").value("ROLE_USER"));
+    }
+
+    @Test
+    void testBearerRequest_CreatesNoSession() throws Exception {
+        // La cadena de /api/** es stateless: ni el request autenticado ni el rechazado abren sesión
+        MvcResult ok = mockMvc.perform(get("/api/user/info")
+                        .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(ok.getRequest().getSession(false));
+
+        MvcResult rejected = mockMvc.perform(get("/api/user/info"))
+                .andExpect(status().isUnauthorized())
+                .andReturn();
+        assertNull(rejected.getRequest().getSession(false));
+    }
+
     @Test
     void testProtectedEndpoint_InvalidToken_Unauthorized() throws Exception {
         // Token inválido debe ser rechazado
@@ -142,4 +181,70 @@ class SecurityIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").exists());
     }
+
+    // La revocación vive también en memoria (Bloom filter) y sobrevive al rollback:
+    // estos tests usan usuarios propios para no afectar a normaluser / adminuser
+
+    @Test
+    void testLogout_RevokesToken() throws Exception {
+        String token = generateToken("logoutuser", List.of("ROLE_USER"));
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        mockMvc.perform(get("/api/user/info")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRevokeAllFor_RejectsTokensIssuedBefore() throws Exception {
+        String token = generateToken("revokeduser", List.of("ROLE_USER"));
+        tokenRevocationService.revokeAllFor("revokeduser");
+
+        mockMvc.perform(get("/api/user/info")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        // Los tokens de otros usuarios siguen valiendo
+        mockMvc.perform(get("/api/user/info")
+                        .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testActuator_RequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/ratelimit")
+                        .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/ratelimit")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        // Health sigue público
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testRevokeAllFor_AcceptsTokensIssuedAfter() throws Exception {
+        String before = generateToken("reissueduser", List.of("ROLE_USER"));
+        tokenRevocationService.revokeAllFor("reissueduser");
+
+        // Emitido justo después (p. ej. login con la contraseña nueva): puede caer en el mismo segundo que el corte
+        String after = generateToken("reissueduser", List.of("ROLE_USER"));
+
+        mockMvc.perform(get("/api/user/info")
+                        .header("Authorization", "Bearer " + before))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/user/info")
+                        .header("Authorization", "Bearer " + after))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,99 @@
+package com.mcp.javamcp.security;
+
+import com.mcp.javamcp.service.TokenService;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Firma y verificación con cada algoritmo soportado (sin contexto Spring)
+ */
+class SigningKeyJwtDecoderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {JwtSigningKey.RS256, JwtSigningKey.ES256, JwtSigningKey.EDDSA})
+    void testDecode_TokenServiceToken(String algorithm) throws Exception {
+        JwtKeyManager keyManager = keyManager(algorithm);
+
+        String token = issue(keyManager);
+        Jwt jwt = new SigningKeyJwtDecoder(keyManager).decode(token);
+
+        assertEquals(algorithm, jwt.getHeaders().get("alg"));
+        assertEquals(keyManager.active().keyId(), jwt.getHeaders().get("kid"));
+        assertEquals("testuser", jwt.getSubject());
+        assertEquals(List.of("ROLE_USER"), jwt.getClaimAsStringList("roles"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {JwtSigningKey.RS256, JwtSigningKey.ES256, JwtSigningKey.EDDSA})
+    void testDecode_EncoderToken(String algorithm) throws Exception {
+        JwtKeyManager keyManager = keyManager(algorithm);
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("testuser")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+
+        String token = new SigningKeyJwtEncoder(keyManager).encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        Jwt jwt = new SigningKeyJwtDecoder(keyManager).decode(token);
+
+        assertEquals("testuser", jwt.getSubject());
+        assertNotNull(jwt.getExpiresAt());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {JwtSigningKey.RS256, JwtSigningKey.ES256, JwtSigningKey.EDDSA})
+    void testDecode_UnknownKeyRejected(String algorithm) throws Exception {
+        String token = issue(keyManager(algorithm));
+
+        assertThrows(BadJwtException.class, () -> new SigningKeyJwtDecoder(keyManager(algorithm)).decode(token));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {JwtSigningKey.RS256, JwtSigningKey.ES256, JwtSigningKey.EDDSA})
+    void testDecode_TamperedSignatureRejected(String algorithm) throws Exception {
+        JwtKeyManager keyManager = keyManager(algorithm);
+
+        String token = issue(keyManager);
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char flipped = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signatureStart) + flipped + token.substring(signatureStart + 1);
+
+        assertThrows(BadJwtException.class, () -> new SigningKeyJwtDecoder(keyManager).decode(tampered));
+    }
+
+    private static String issue(JwtKeyManager keyManager) {
+        return new TokenService(keyManager, new SimpleMeterRegistry(), "http://localhost:8080")
+                .issue("testuser", AuthorityUtils.createAuthorityList("ROLE_USER"))
+                .tokenValue();
+    }
+
+    static JwtKeyManager keyManager(String algorithm) throws Exception {
+        return new JwtKeyManager(JwtSigningKey.of(generate(algorithm)), 2);
+    }
+
+    static JWK generate(String algorithm) throws Exception {
+        return switch (algorithm) {
+            case JwtSigningKey.RS256 -> new RSAKeyGenerator(2048).keyIDFromThumbprint(true).generate();
+            case JwtSigningKey.ES256 -> new ECKeyGenerator(Curve.P_256).keyIDFromThumbprint(true).generate();
+            case JwtSigningKey.EDDSA -> new OctetKeyPairGenerator(Curve.Ed25519).keyIDFromThumbprint(true).generate();
+            default -> throw new IllegalArgumentException("Algoritmo no soportado: " + algorithm);
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.mcp.javamcp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.javamcp.dto.RegisterRequestDTO;
+import com.mcp.javamcp.metrics.AuthMetrics;
+import com.mcp.javamcp.model.User;
+import com.mcp.javamcp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cache de cuentas: los "no existe" se cachean y register, change-password y delete lo invalidan.
+ * El cache es del contexto (no hace rollback): cada test usa sus propios usernames.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class CustomUserDetailsServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testUnknownUsername_CachedUntilEvicted() {
+        double lookups = notFoundLookups();
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("cache-ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("cache-ghost"));
+
+        // El segundo intento no fue a la BD
+        assertEquals(lookups + 1, notFoundLookups());
+
+        // Alta por fuera de los endpoints (sin evict): sigue cacheado como inexistente
+        saveUser("cache-ghost", "password");
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("cache-ghost"));
+
+        userDetailsService.evict("cache-ghost");
+        assertEquals("cache-ghost", userDetailsService.loadUserByUsername("cache-ghost").getUsername());
+    }
+
+    @Test
+    void testRegister_EvictsNegativeEntry() throws Exception {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("cache-newcomer"));
+
+        mockMvc.perform(post("/api/users/register")
+                        .with(request -> {
+                            request.setRemoteAddr("10.9.3.1"); // bucket de rate limit propio
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new RegisterRequestDTO("cache-newcomer", "password123", "password123"))))
+                .andExpect(status().isCreated());
+
+        assertEquals("cache-newcomer", userDetailsService.loadUserByUsername("cache-newcomer").getUsername());
+    }
+
+    @Test
+    void testChangePassword_EvictsStaleHash() throws Exception {
+        saveUser("cache-pwchange", "oldpassword");
+        UserDetails before = userDetailsService.loadUserByUsername("cache-pwchange");
+        assertTrue(passwordEncoder.matches("oldpassword", before.getPassword()));
+
+        mockMvc.perform(put("/api/users/change-password")
+                        .header("Authorization", "Bearer " + token("cache-pwchange"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"oldpassword\",\"newPassword\":\"newpassword\"}"))
+                .andExpect(status().isOk());
+
+        // Sin el evict el login seguiría aceptando la contraseña vieja hasta que venza el TTL
+        UserDetails after = userDetailsService.loadUserByUsername("cache-pwchange");
+        assertTrue(passwordEncoder.matches("newpassword", after.getPassword()));
+        assertFalse(passwordEncoder.matches("oldpassword", after.getPassword()));
+    }
+
+    @Test
+    void testDeleteAccount_EvictsEntry() throws Exception {
+        saveUser("cache-deleted", "password");
+        userDetailsService.loadUserByUsername("cache-deleted");
+
+        mockMvc.perform(delete("/api/users/profile")
+                        .header("Authorization", "Bearer " + token("cache-deleted")))
+                .andExpect(status().isOk());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("cache-deleted"));
+    }
+
+    private void saveUser(String username, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles("USER");
+        userRepository.save(user);
+    }
+
+    private String token(String username) {
+        return tokenService.issue(username, AuthorityUtils.createAuthorityList("ROLE_USER")).tokenValue();
+    }
+
+    private double notFoundLookups() {
+        return meterRegistry.get(AuthMetrics.USER_LOOKUP).tag(AuthMetrics.OUTCOME, "not_found").timer().count();
+    }
+}
@@ -0,0 +1,101 @@
+package com.mcp.javamcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ventana deslizante y back-off exponencial del tracker (sin contexto Spring ni BD)
+ */
+class LoginFailureTrackerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private LoginFailureTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new LoginFailureTracker(null, new SimpleMeterRegistry(), 3, Duration.ofMinutes(10),
+                Duration.ofSeconds(5), Duration.ofMinutes(1), 1000, clock);
+    }
+
+    @Test
+    void testLockout_StartsAtThresholdAndDoubles() {
+        tracker.recordFailure("alice");
+        tracker.recordFailure("alice");
+        assertEquals(Duration.ZERO, tracker.lockoutRemaining("alice"));
+
+        tracker.recordFailure("alice");
+        assertEquals(Duration.ofSeconds(5), tracker.lockoutRemaining("alice"));
+
+        tracker.recordFailure("alice");
+        assertEquals(Duration.ofSeconds(10), tracker.lockoutRemaining("alice"));
+
+        // Mismo usuario con otras mayúsculas
+        assertEquals(Duration.ofSeconds(10), tracker.lockoutRemaining(" ALICE"));
+        assertEquals(Duration.ZERO, tracker.lockoutRemaining("bob"));
+    }
+
+    @Test
+    void testLockout_CappedAndExpires() {
+        for (int i = 0; i < 20; i++) {
+            tracker.recordFailure("carol");
+        }
+        assertEquals(Duration.ofMinutes(1), tracker.lockoutRemaining("carol"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(Duration.ZERO, tracker.lockoutRemaining("carol"));
+    }
+
+    @Test
+    void testWindow_OldFailuresFadeOut() {
+        tracker.recordFailure("dave");
+        tracker.recordFailure("dave");
+
+        // Dos ventanas después ya no cuentan
+        clock.advance(Duration.ofMinutes(25));
+        tracker.recordFailure("dave");
+        assertEquals(Duration.ZERO, tracker.lockoutRemaining("dave"));
+    }
+
+    @Test
+    void testSuccess_ClearsFailures() {
+        tracker.recordFailure("erin");
+        tracker.recordFailure("erin");
+        tracker.recordSuccess("erin");
+        tracker.recordFailure("erin");
+
+        assertEquals(Duration.ZERO, tracker.lockoutRemaining("erin"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
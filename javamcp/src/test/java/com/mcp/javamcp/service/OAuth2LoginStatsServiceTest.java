@@ -0,0 +1,67 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.model.OAuth2User;
+import com.mcp.javamcp.repository.OAuth2UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Write-behind de login_count / last_login (el flush corre en la transacción del test)
+ */
+@SpringBootTest
+@Transactional
+class OAuth2LoginStatsServiceTest {
+
+    @Autowired
+    private OAuth2LoginStatsService loginStatsService;
+
+    @Autowired
+    private OAuth2UserRepository oauth2UserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testFlush_AccumulatesLoginsInOneUpdate() {
+        OAuth2User user = new OAuth2User();
+        user.setEmail("stats@example.com");
+        user.setProvider("test-stats");
+        user.setProviderId("stats-1");
+        user.setLoginCount(3);
+        user.setLastLogin(LocalDateTime.of(2025, 1, 1, 10, 0));
+        oauth2UserRepository.saveAndFlush(user);
+
+        loginStatsService.recordLogin("test-stats", "stats-1", LocalDateTime.of(2025, 3, 1, 10, 0));
+        loginStatsService.recordLogin("test-stats", "stats-1", LocalDateTime.of(2025, 2, 1, 10, 0));
+
+        // Hasta el flush no se escribe nada
+        assertEquals(3, loginCount("stats-1").get("login_count"));
+
+        loginStatsService.flush();
+
+        Map<String, Object> row = loginCount("stats-1");
+        assertEquals(5, row.get("login_count"));
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 10, 0)), row.get("last_login"));
+    }
+
+    @Test
+    void testFlush_UnknownUserIsIgnored() {
+        loginStatsService.recordLogin("test-stats", "no-existe", LocalDateTime.now());
+
+        assertDoesNotThrow(() -> loginStatsService.flush());
+    }
+
+    private Map<String, Object> loginCount(String providerId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT login_count, last_login FROM oauth2_users WHERE provider_id = ?", providerId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.repository.OAuth2UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upsert de usuarios OAuth2 sobre (provider, provider_id)
+ */
+@SpringBootTest
+@Transactional
+class OAuth2UserProvisioningServiceTest {
+
+    private static final LocalDateTime LOGIN = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Autowired
+    private OAuth2UserProvisioningService provisioningService;
+
+    @Autowired
+    private OAuth2UserRepository oauth2UserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testProvision_FirstLoginCreates_RepeatLoginDoesNotDuplicate() {
+        assertEquals(OAuth2UserProvisioningService.Outcome.CREATED,
+                provisioningService.provision("test-prov", "p-1", "a@example.com", "Ana", null, LOGIN));
+        assertEquals(OAuth2UserProvisioningService.Outcome.UNCHANGED,
+                provisioningService.provision("test-prov", "p-1", "a@example.com", "Ana", null, LOGIN));
+
+        assertEquals(1, countRows("test-prov", "p-1"));
+        var user = oauth2UserRepository.findByProviderAndProviderId("test-prov", "p-1").orElseThrow();
+        assertEquals("a@example.com", user.getEmail());
+        assertEquals(LOGIN, user.getFirstLogin());
+    }
+
+    @Test
+    void testProvision_ProfileChangeUpdates() {
+        provisioningService.provision("test-prov", "p-2", "old@example.com", "Ana", null, LOGIN);
+
+        assertEquals(OAuth2UserProvisioningService.Outcome.UPDATED,
+                provisioningService.provision("test-prov", "p-2", "new@example.com", "Ana", null, LOGIN));
+
+        assertEquals("new@example.com", jdbcTemplate.queryForObject(
+                "SELECT email FROM oauth2_users WHERE provider = ? AND provider_id = ?", String.class,
+                "test-prov", "p-2"));
+    }
+
+    @Test
+    void testProvision_RepeatLoginDoesNotConsumeSequence() {
+        provisioningService.provision("test-prov", "p-4", "a@example.com", "Ana", null, LOGIN);
+        long before = sequenceValue();
+
+        provisioningService.provision("test-prov", "p-4", "a@example.com", "Ana", null, LOGIN);
+        provisioningService.provision("test-prov", "p-4", "b@example.com", "Ana", null, LOGIN);
+
+        assertEquals(before, sequenceValue());
+    }
+
+    @Test
+    void testProvision_SameIdOnOtherProviderIsAnotherUser() {
+        provisioningService.provision("test-prov", "p-3", "a@example.com", "Ana", null, LOGIN);
+
+        assertEquals(OAuth2UserProvisioningService.Outcome.CREATED,
+                provisioningService.provision("test-prov-2", "p-3", null, "ana", null, LOGIN));
+    }
+
+    /**
+     * last_value de la secuencia (no la avanza, a diferencia de nextval)
+     */
+    private long sequenceValue() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM oauth2_users_seq", Long.class);
+    }
+
+    private int countRows(String provider, String providerId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM oauth2_users WHERE provider = ? AND provider_id = ?", Integer.class,
+                provider, providerId);
+    }
+}
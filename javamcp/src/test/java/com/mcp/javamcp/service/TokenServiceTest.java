@@ -0,0 +1,100 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.security.JwtKeyManager;
+import com.mcp.javamcp.security.JwtSigningKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los tokens serializados a mano deben verificar con el decoder estándar de Spring (sin contexto Spring)
+ */
+class TokenServiceTest {
+
+    private TokenService tokenService;
+    private NimbusJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("test-kid").generate();
+        tokenService = new TokenService(new JwtKeyManager(JwtSigningKey.of(rsaKey), 0), new SimpleMeterRegistry(), "http://localhost:8080");
+        decoder = NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+    }
+
+    @Test
+    void testIssue_LoginClaims() {
+        TokenService.IssuedToken token = tokenService.issue("testuser",
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
+
+        Jwt jwt = decoder.decode(token.tokenValue());
+
+        assertEquals("test-kid", jwt.getHeaders().get("kid"));
+        assertEquals("http://localhost:8080", jwt.getClaimAsString("iss"));
+        assertEquals("testuser", jwt.getSubject());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), jwt.getClaimAsStringList("roles"));
+        assertEquals(Duration.ofHours(1), Duration.between(jwt.getIssuedAt(), jwt.getExpiresAt()));
+        assertNull(jwt.getClaim("provider"));
+        assertNull(jwt.getClaim("provider_id"));
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), token.roles());
+        assertEquals(3600, token.expiresIn());
+    }
+
+    @Test
+    void testIssue_UniqueJti() {
+        var authorities = AuthorityUtils.createAuthorityList("ROLE_USER");
+
+        String first = decoder.decode(tokenService.issue("testuser", authorities).tokenValue()).getId();
+        String second = decoder.decode(tokenService.issue("testuser", authorities).tokenValue()).getId();
+
+        assertNotNull(first);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testIssue_OAuth2ClaimsAreEscaped() {
+        TokenService.IssuedToken token = tokenService.issue("Juan \"JP\" Pérez",
+                AuthorityUtils.createAuthorityList("OAUTH2_USER"), "google", "1234567890", "jp@example.com");
+
+        Jwt jwt = decoder.decode(token.tokenValue());
+
+        assertEquals("Juan \"JP\" Pérez", jwt.getSubject());
+        assertEquals("google", jwt.getClaimAsString("provider"));
+        assertEquals("1234567890", jwt.getClaimAsString("provider_id"));
+        assertEquals("jp@example.com", jwt.getClaimAsString("email"));
+    }
+
+    @Test
+    void testIssue_SameRolesReuseFragment() {
+        TokenService.IssuedToken first = tokenService.issue("a", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        TokenService.IssuedToken second = tokenService.issue("b", AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        assertSame(first.roles(), second.roles());
+    }
+
+    @Test
+    void testIssue_OAuth2AuthoritiesKeyedByName() {
+        TokenService.IssuedToken first = tokenService.issue("a", List.of(
+                new OAuth2UserAuthority("OAUTH2_USER", Map.of("email", "a@example.com")),
+                new SimpleGrantedAuthority("SCOPE_email")), "github", "1", "a@example.com");
+        TokenService.IssuedToken second = tokenService.issue("b", List.of(
+                new SimpleGrantedAuthority("SCOPE_email"),
+                new OAuth2UserAuthority("OAUTH2_USER", Map.of("email", "b@example.com"))), "github", "2", "b@example.com");
+
+        // Los atributos del usuario no forman parte de la clave: mismo fragmento, sin datos personales cacheados
+        assertEquals(List.of("OAUTH2_USER", "SCOPE_email"), first.roles());
+        assertSame(first.roles(), second.roles());
+    }
+}
@@ -0,0 +1,101 @@
+package com.mcp.javamcp.service;
+
+import com.mcp.javamcp.model.User;
+import com.mcp.javamcp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Importación masiva de usuarios (CSV y NDJSON)
+ */
+@SpringBootTest
+@Transactional
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void testImportCsv_HashesDeduplicatesAndSkipsExisting() throws Exception {
+        User existing = new User();
+        existing.setUsername("import-existing");
+        existing.setPassword(passwordEncoder.encode("password"));
+        existing.setRoles("USER");
+        userRepository.save(existing);
+
+        String csv = """
+                username,password,passwordHash,roles
+                import-plain,secret123,,
+                import-hashed,,%s,"ADMIN,USER"
+                import-plain,otra,,
+                import-existing,password,,
+                x,short,,
+                """.formatted(passwordEncoder.encode("hashed123"));
+
+        UserImportService.ImportResult result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.CSV);
+
+        assertEquals(5, result.read());
+        assertEquals(2, result.imported());
+        assertEquals(1, result.alreadyExisting());
+        assertEquals(1, result.duplicatesInInput());
+        assertEquals(1, result.invalid());
+
+        User plain = userRepository.findByUsername("import-plain").orElseThrow();
+        assertTrue(passwordEncoder.matches("secret123", plain.getPassword()));
+        assertEquals("USER", plain.getRoles());
+
+        User hashed = userRepository.findByUsername("import-hashed").orElseThrow();
+        assertTrue(passwordEncoder.matches("hashed123", hashed.getPassword()));
+        assertEquals("ADMIN,USER", hashed.getRoles());
+    }
+
+    @Test
+    void testImportNdjson() throws Exception {
+        String ndjson = """
+                {"username":"import-json-1","password":"secret123"}
+                {"username":"import-json-2","password":"secret456","roles":"USER"}
+                """;
+
+        UserImportService.ImportResult result = userImportService.importUsers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.NDJSON);
+
+        assertEquals(2, result.imported());
+        assertTrue(userRepository.findByUsername("import-json-2").isPresent());
+    }
+
+    @Test
+    void testImport_PlainTextInPasswordHashIsRejected() throws Exception {
+        String csv = """
+                username,passwordHash
+                import-bad-hash,no-es-un-hash
+                """;
+
+        UserImportService.ImportResult result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.CSV);
+
+        assertEquals(1, result.invalid());
+        assertTrue(userRepository.findByUsername("import-bad-hash").isEmpty());
+    }
+
+    @Test
+    void testParseCsvLine_QuotedFields() {
+        assertEquals(List.of("a", "ADMIN,USER", "say \"hi\"", ""),
+                UserImportService.parseCsvLine("a,\"ADMIN,USER\",\"say \"\"hi\"\"\","));
+    }
+}